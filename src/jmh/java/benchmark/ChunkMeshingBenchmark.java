@@ -0,0 +1,128 @@
+package benchmark;
+
+import mesh.ChunkMeshData;
+import mesh.MeshCache;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import render.ChunkMeshBuilder;
+import render.ChunkMeshBuilder.MeshingMode;
+import texture.TextureAtlas;
+import world.BlockRegistry;
+import world.Chunk;
+import world.generator.TerrainGenerator;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for ChunkMeshBuilder.generateMeshData, one operation per chunk
+ * (every section, with its four neighbours loaded), for each meshing mode on:
+ *   FLAT          stone, dirt and a grass top - large coplanar faces
+ *   HILLY         TerrainGenerator output, the common case in game
+ *   CHECKERBOARD  every other block solid in 3D - every face visible, nothing merges
+ *   AIR           nothing to mesh
+ *   SOLID         completely full - every face culled
+ *
+ * Scores are ns/chunk. The build runs with the gc profiler, whose
+ * gc.alloc.rate.norm is the heap bytes allocated per chunk; the vertex count of
+ * each case is printed once per trial.
+ *
+ * Usage: ./gradlew jmh  (results in build/results/jmh/)
+ * CPU only - no window or GL context needed. MeshCache is off, or every
+ * operation after the first would be a cache hit.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ChunkMeshingBenchmark {
+    public enum Terrain {
+        FLAT, HILLY, CHECKERBOARD, AIR, SOLID
+    }
+
+    private static final long SEED = 1234L;
+    private static final int FLAT_HEIGHT = 12; // Grass layer
+
+    @Param
+    public Terrain terrain;
+
+    @Param
+    public MeshingMode mode;
+
+    private Chunk chunk;
+    private final Chunk[] neighbours = new Chunk[4];
+    private TextureAtlas atlas;
+    private MeshingMode originalMode;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        atlas = TextureAtlas.layoutOnly();
+        chunk = createChunk(terrain, 0, 0);
+        for (int side = 0; side < 4; side++) {
+            neighbours[side] = createChunk(terrain, Chunk.SIDE_DX[side], Chunk.SIDE_DZ[side]);
+        }
+
+        originalMode = ChunkMeshBuilder.getMeshingMode();
+        ChunkMeshBuilder.setMeshingMode(mode);
+        MeshCache.setEnabled(false);
+
+        System.out.printf("%s %s: %d vertices per chunk%n", terrain, mode, mesh(null, chunk, neighbours, atlas));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ChunkMeshBuilder.setMeshingMode(originalMode);
+        MeshCache.setEnabled(true);
+    }
+
+    @Benchmark
+    public long meshChunk(Blackhole blackhole) {
+        return mesh(blackhole, chunk, neighbours, atlas);
+    }
+
+    // Vertex count of the chunk's opaque and translucent meshes
+    private static long mesh(Blackhole blackhole, Chunk chunk, Chunk[] neighbours, TextureAtlas atlas) {
+        long vertices = 0;
+        for (int section = 0; section < Chunk.SECTIONS; section++) {
+            ChunkMeshData data = ChunkMeshBuilder.generateMeshData(chunk, neighbours, atlas, section);
+            vertices += data.getVertexCount();
+            if (data.hasTranslucent()) {
+                vertices += data.getTranslucentVertices().length;
+            }
+            if (blackhole != null) {
+                blackhole.consume(data);
+            }
+            data.release(); // What the GL thread does after uploading
+        }
+        return vertices;
+    }
+
+    private static Chunk createChunk(Terrain terrain, int chunkX, int chunkZ) {
+        Chunk chunk = new Chunk(chunkX, 0, chunkZ);
+        if (terrain == Terrain.HILLY) {
+            new TerrainGenerator(SEED).generate(chunk, null);
+            return chunk;
+        }
+
+        for (int x = 0; x < Chunk.SIZE; x++) {
+            for (int y = 0; y < Chunk.HEIGHT; y++) {
+                for (int z = 0; z < Chunk.SIZE; z++) {
+                    byte id = switch (terrain) {
+                        case FLAT -> y < FLAT_HEIGHT - 3 ? BlockRegistry.STONE
+                                : y < FLAT_HEIGHT ? BlockRegistry.DIRT
+                                : y == FLAT_HEIGHT ? BlockRegistry.GRASS : BlockRegistry.AIR;
+                        case CHECKERBOARD -> ((x + y + z) & 1) == 0 ? BlockRegistry.STONE : BlockRegistry.AIR;
+                        case SOLID -> BlockRegistry.STONE;
+                        default -> BlockRegistry.AIR;
+                    };
+                    // Shared instances, one per block type, like generated and loaded chunks
+                    if (id != BlockRegistry.AIR) {
+                        chunk.setBlock(x, y, z, BlockRegistry.create(id));
+                    }
+                }
+            }
+        }
+        return chunk;
+    }
+}
@@ -32,6 +32,12 @@ public class Game {
     private float saveTimer = 0;
     private final float SAVE_INTERVAL = 30.0f; // Auto-save every 30 seconds
 
+    // Incremental autosave: drain dirty chunks a few per frame instead of all at once.
+    // SAVE_INTERVAL then acts as the maximum time a chunk may stay unsaved.
+    public boolean incrementalAutosave = true;
+    private final float AUTOSAVE_BUDGET_MS = 2.0f;   // Max time spent saving per frame
+    private final float AUTOSAVE_MIN_AGE = 5.0f;     // Let a chunk collect edits before writing it
+
     // FPS optimization variables
     private int frameCount = 0;
     private float fpsTimer = 0;
@@ -114,7 +120,7 @@ public class Game {
         if (chunk.getVisibleBlockCount() > 0) {
             try {
                 // Force build a mesh synchronously
-                mesh.ChunkMesh testMesh = new mesh.ChunkMesh();
+                mesh.ChunkMesh testMesh = new mesh.ChunkMesh(chunk.chunkX, chunk.chunkZ);
                 testMesh.buildSync(chunk, renderManager.getTextureAtlas()); // Add getter to RenderManager
                 System.out.println("Test mesh built: " + testMesh.isValid() +
                         " (" + testMesh.getVertexCount() + " vertices)");
@@ -218,12 +224,16 @@ public class Game {
             // Update FPS counter
             updateFPSCounter(deltaTime);
 
-            // Auto-save timer
-            saveTimer += deltaTime;
-            if (saveTimer >= SAVE_INTERVAL) {
-                System.out.println("Auto-saving...");
-                worldManager.saveModifiedChunks();
-                saveTimer = 0;
+            // Auto-save
+            if (incrementalAutosave) {
+                worldManager.saveModifiedChunksIncremental(AUTOSAVE_BUDGET_MS, AUTOSAVE_MIN_AGE, SAVE_INTERVAL);
+            } else {
+                saveTimer += deltaTime;
+                if (saveTimer >= SAVE_INTERVAL) {
+                    System.out.println("Auto-saving...");
+                    worldManager.saveModifiedChunks();
+                    saveTimer = 0;
+                }
             }
 
             // --- Get input ---
@@ -271,6 +281,9 @@ public class Game {
                 }
             }
 
+            // --- Frame uniforms, shared by the shadow, world and highlight passes ---
+            renderManager.updateFrameUniforms();
+
             // --- Update shadows ---
             shadowUpdateCounter++;
             if (shadowsEnabled && shadowUpdateCounter % 10 == 0) {
@@ -280,7 +293,11 @@ public class Game {
             // --- Generate chunks ---
             chunkGenTimer += deltaTime;
             if (chunkGenTimer >= CHUNK_GEN_INTERVAL) {
-                worldManager.generateChunksAround(player.getCamera().getPosition());
+                worldManager.generateChunksAround(
+                        player.getCamera().getPosition(),
+                        player.getVelocity(),
+                        player.getCamera().getFront()
+                );
                 chunkGenTimer = 0;
             }
 
@@ -358,10 +375,12 @@ public class Game {
 
         if (fpsTimer >= 1.0f) {
             lastFPS = frameCount;
-            System.out.printf("FPS: %.1f | Chunks: %d | Blocks: %d | Shadows: %s%n",
+            System.out.printf("FPS: %.1f | Chunks: %d | Blocks: %d | Save backlog: %d | Prefetch hits: %.0f%% | Shadows: %s%n",
                     lastFPS,
                     worldManager.getLoadedChunks().size(),
-                    worldManager.getRenderList().size(),
+                    worldManager.getTotalBlockCount(),
+                    worldManager.getSaveBacklogSize(),
+                    worldManager.getPrefetcher().getHitRate() * 100.0f,
                     shadowsEnabled ? "ON" : "OFF");
             frameCount = 0;
             fpsTimer = 0;
@@ -0,0 +1,69 @@
+package benchmark;
+
+import render.ChunkMeshBuilder;
+import render.ChunkMeshBuilder.ChunkDataSnapshot;
+import texture.TextureAtlas;
+import world.Chunk;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Times the face culling step alone: the per-block isFaceVisible loop the greedy
+ * mesher runs against the row bitmasks of the binary mesher, on the same snapshots.
+ * Both must find the same number of visible faces.
+ *
+ * Usage: ./gradlew cullBenchmark [-Pchunks=8] [-Pseed=1234]
+ * Runs on the CPU only - no window or GL context needed.
+ */
+public class FaceCullingBenchmark {
+    private static final int WARMUP_ROUNDS = 100; // The bitmask path needs a while to get fully compiled
+    private static final int MEASURED_ROUNDS = 50;
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 1234L;
+
+        List<Chunk> chunks = MeshingBenchmark.generateTerrain(size, seed);
+        TextureAtlas atlas = TextureAtlas.layoutOnly();
+
+        // Snapshot once, so only the culling itself is timed
+        List<ChunkDataSnapshot> snapshots = new ArrayList<>();
+        for (Chunk chunk : chunks) {
+            snapshots.add(new ChunkDataSnapshot(chunk, MeshingBenchmark.neighboursOf(chunk, chunks, size), atlas));
+        }
+
+        int sections = snapshots.size() * Chunk.SECTIONS;
+        System.out.println("Culling " + sections + " sections of " + chunks.size() + " generated chunks (seed " + seed + ")");
+        System.out.printf("%-10s %14s %16s%n", "method", "visible faces", "µs/section");
+
+        long perBlock = run("per-block", snapshots, false);
+        long bitmask = run("bitmask", snapshots, true);
+        System.out.printf("bitmask culling is %.1fx faster%n", (double)perBlock / Math.max(1, bitmask));
+    }
+
+    // Returns the measured nanoseconds
+    private static long run(String label, List<ChunkDataSnapshot> snapshots, boolean bitmasks) {
+        long nanos = 0;
+        int faces = 0;
+        for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+            int roundFaces = 0;
+            long start = System.nanoTime();
+            for (ChunkDataSnapshot snapshot : snapshots) {
+                for (int section = 0; section < Chunk.SECTIONS; section++) {
+                    roundFaces += ChunkMeshBuilder.countVisibleFaces(snapshot, section, bitmasks);
+                }
+            }
+            long elapsed = System.nanoTime() - start;
+
+            if (round >= WARMUP_ROUNDS) {
+                nanos += elapsed;
+                faces = roundFaces;
+            }
+        }
+
+        double microsPerSection = nanos / 1000.0 / MEASURED_ROUNDS / (snapshots.size() * Chunk.SECTIONS);
+        System.out.printf("%-10s %14d %16.2f%n", label, faces, microsPerSection);
+        return nanos;
+    }
+}
@@ -0,0 +1,139 @@
+package benchmark;
+
+import mesh.ChunkMeshData;
+import mesh.MeshCache;
+import mesh.QuadIndices;
+import render.ChunkMeshBuilder;
+import render.ChunkMeshBuilder.MeshingMode;
+import render.LodMeshBuilder;
+import texture.TextureAtlas;
+import world.Chunk;
+import world.generator.TerrainGenerator;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares the meshing modes on generated terrain: vertex count, CPU build time,
+ * heap bytes allocated per chunk and the bytes that would be uploaded to the GPU.
+ * The LOD rows mesh the same chunks at each coarse level of LodMeshBuilder.
+ * MeshCache is off for those rows; the CACHED row turns it on, so after the
+ * warmup every section is a hit and the row shows what a hit costs.
+ *
+ * Usage: ./gradlew meshBenchmark [-Pchunks=8] [-Pseed=1234]
+ * Runs on the CPU only - no window or GL context needed.
+ */
+public class MeshingBenchmark {
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 10;
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 1234L;
+
+        List<Chunk> chunks = generateTerrain(size, seed);
+        TextureAtlas atlas = TextureAtlas.layoutOnly();
+
+        System.out.println("Meshing " + chunks.size() + " generated chunks (seed " + seed + ")");
+        System.out.printf("%-8s %12s %12s %14s %14s %16s%n",
+                "mode", "vertices", "quads", "upload (KB)", "ms/chunk", "alloc B/chunk");
+
+        MeshingMode original = ChunkMeshBuilder.getMeshingMode();
+        try {
+            MeshCache.setEnabled(false);
+            for (MeshingMode mode : MeshingMode.values()) {
+                run(mode.name(), mode, 0, chunks, size, atlas);
+            }
+            for (int level = 1; level < LodMeshBuilder.LEVELS; level++) {
+                run("LOD" + level, MeshingMode.GREEDY, level, chunks, size, atlas);
+            }
+
+            MeshCache.setEnabled(true);
+            run("CACHED", MeshingMode.BINARY, 0, chunks, size, atlas);
+            System.out.printf("Mesh cache: %d hits, %d misses, %d entries, %.1f KB%n",
+                    MeshCache.getHits(), MeshCache.getMisses(), MeshCache.getEntryCount(),
+                    MeshCache.getCachedBytes() / 1024.0);
+        } finally {
+            ChunkMeshBuilder.setMeshingMode(original);
+        }
+    }
+
+    // Adjacent chunks of the generated grid (null outside it), so border faces are culled like in game
+    static Chunk[] neighboursOf(Chunk chunk, List<Chunk> chunks, int size) {
+        Chunk[] neighbours = new Chunk[4];
+        for (int side = 0; side < 4; side++) {
+            int nx = chunk.chunkX + Chunk.SIDE_DX[side];
+            int nz = chunk.chunkZ + Chunk.SIDE_DZ[side];
+            if (nx >= 0 && nz >= 0 && nx < size && nz < size) {
+                neighbours[side] = chunks.get(nx * size + nz);
+            }
+        }
+        return neighbours;
+    }
+
+    static List<Chunk> generateTerrain(int size, long seed) {
+        TerrainGenerator generator = new TerrainGenerator(seed);
+        List<Chunk> chunks = new ArrayList<>();
+        for (int cx = 0; cx < size; cx++) {
+            for (int cz = 0; cz < size; cz++) {
+                Chunk chunk = new Chunk(cx, 0, cz);
+                generator.generate(chunk, null);
+                chunks.add(chunk);
+            }
+        }
+        return chunks;
+    }
+
+    // lod 0 meshes at full detail with the given mode, otherwise at that LodMeshBuilder level
+    private static void run(String label, MeshingMode mode, int lod, List<Chunk> chunks, int size, TextureAtlas atlas) {
+        ChunkMeshBuilder.setMeshingMode(mode);
+
+        List<Chunk[]> neighbours = new ArrayList<>();
+        for (Chunk chunk : chunks) {
+            neighbours.add(neighboursOf(chunk, chunks, size));
+        }
+
+        long vertices = 0;
+        long nanos = 0;
+        long allocated = 0;
+
+        for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+            long roundVertices = 0;
+            long allocStart = threadAllocatedBytes();
+            long start = System.nanoTime();
+            for (int i = 0; i < chunks.size(); i++) {
+                for (int section = 0; section < Chunk.SECTIONS; section++) {
+                    ChunkMeshData data = lod == 0
+                            ? ChunkMeshBuilder.generateMeshData(chunks.get(i), neighbours.get(i), atlas, section)
+                            : LodMeshBuilder.generateMeshData(chunks.get(i), atlas, section, lod);
+                    roundVertices += data.getVertexCount();
+                    data.release(); // What the GL thread does after uploading
+                }
+            }
+            long elapsed = System.nanoTime() - start;
+            long roundAllocated = threadAllocatedBytes() - allocStart;
+
+            if (round >= WARMUP_ROUNDS) {
+                nanos += elapsed;
+                allocated += roundAllocated;
+                vertices = roundVertices;
+            }
+        }
+
+        long uploadBytes = vertices * ChunkMeshData.BYTES_PER_VERTEX;
+        double msPerChunk = nanos / 1e6 / MEASURED_ROUNDS / chunks.size();
+        long allocPerChunk = allocated / MEASURED_ROUNDS / chunks.size();
+        System.out.printf("%-8s %12d %12d %14.1f %14.3f %16d%n",
+                label, vertices, vertices / QuadIndices.VERTICES_PER_QUAD, uploadBytes / 1024.0, msPerChunk, allocPerChunk);
+    }
+
+    // Heap bytes allocated by this thread so far (HotSpot extension), -1 if unsupported
+    private static long threadAllocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                && bean.isThreadAllocatedMemorySupported()) {
+            return bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+}
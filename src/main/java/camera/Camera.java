@@ -22,6 +22,12 @@ public class Camera {
     private final float NEAR = 0.1f;
     private final float FAR = 1000f;
 
+    // Returned by getView/getProjection and recomputed in place on every call, so the render loop
+    // allocates nothing; callers must not modify them or keep them across calls
+    private final Matrix4f view = new Matrix4f();
+    private final Matrix4f projection = new Matrix4f();
+    private final Vector3f forward = new Vector3f();
+
     public Camera(long window) {
         this.window = window;
 
@@ -83,20 +89,25 @@ public class Camera {
     }
 
     public Matrix4f getView() {
-        return new Matrix4f().lookAt(
-                position,
-                new Vector3f(position).add(getForward()),
-                new Vector3f(0, 1, 0)
+        getForward(forward);
+        return view.setLookAt(
+                position.x, position.y, position.z,
+                position.x + forward.x, position.y + forward.y, position.z + forward.z,
+                0, 1, 0
         );
     }
 
     public Matrix4f getProjection() {
         // Use current aspect ratio, not hardcoded values
-        return new Matrix4f().perspective(FOV, aspectRatio, NEAR, FAR);
+        return projection.setPerspective(FOV, aspectRatio, NEAR, FAR);
     }
 
     private Vector3f getForward() {
-        return new Vector3f(
+        return getForward(new Vector3f());
+    }
+
+    private Vector3f getForward(Vector3f dest) {
+        return dest.set(
                 (float) Math.cos(Math.toRadians(yaw)) * (float) Math.cos(Math.toRadians(pitch)),
                 (float) Math.sin(Math.toRadians(pitch)),
                 (float) Math.sin(Math.toRadians(yaw)) * (float) Math.cos(Math.toRadians(pitch))
@@ -111,10 +122,19 @@ public class Camera {
         return getForward();
     }
 
+    // Non-allocating variant for per-frame use
+    public Vector3f getFront(Vector3f dest) {
+        return getForward(dest);
+    }
+
     public Vector3f getPosition() {
         return new Vector3f(position);
     }
 
+    public Vector3f getPosition(Vector3f dest) {
+        return dest.set(position);
+    }
+
     public float getYaw() {
         return yaw;
     }
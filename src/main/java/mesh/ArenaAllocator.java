@@ -0,0 +1,205 @@
+package mesh;
+
+import java.util.Arrays;
+
+/**
+ * Buddy allocator over a range of vertices, the bookkeeping half of VertexArena.
+ *
+ * The arena is split into power-of-two blocks of MIN_BLOCK_VERTICES << order.
+ * An allocation takes the smallest free block that fits, splitting larger ones in
+ * halves ("buddies") on the way down; freeing merges a block with its buddy for as
+ * long as the buddy is free too, so the arena does not crumble into small pieces.
+ * Every allocation starts on a MIN_BLOCK_VERTICES boundary, which cube.vert relies
+ * on to look up a vertex's section origin by block.
+ * Free blocks of each order form a doubly linked list through next/prev, indexed
+ * by the block's first min-block, so allocate and free never search.
+ * GL-free: offsets and sizes are in vertices, VertexArena turns them into bytes.
+ */
+public class ArenaAllocator {
+    public static final int MIN_BLOCK_SHIFT = 6;
+    public static final int MIN_BLOCK_VERTICES = 1 << MIN_BLOCK_SHIFT;
+
+    private static final int NONE = -1;
+
+    private int maxOrder;      // The whole arena is one block of this order
+    private int[] freeHeads;   // Per order, first free block or NONE
+    private int[] next, prev;  // Free list links, per min-block
+    private byte[] freeOrder;  // Order of the free block starting here, or NONE
+    private byte[] usedOrder;  // Order of the allocation starting here, or NONE
+    private int[] requested;   // Vertices asked for by the allocation starting here
+
+    // Statistics, in vertices
+    private long requestedVertices = 0; // What callers asked for
+    private long allocatedVertices = 0; // Whole blocks handed out
+    private int allocationCount = 0;
+
+    // capacity: vertices, rounded up to a power-of-two number of min-blocks
+    public ArenaAllocator(int capacity) {
+        maxOrder = orderFor(capacity);
+        int blocks = 1 << maxOrder;
+        freeHeads = new int[maxOrder + 1];
+        Arrays.fill(freeHeads, NONE);
+        next = new int[blocks];
+        prev = new int[blocks];
+        freeOrder = new byte[blocks];
+        usedOrder = new byte[blocks];
+        requested = new int[blocks];
+        Arrays.fill(freeOrder, (byte)NONE);
+        Arrays.fill(usedOrder, (byte)NONE);
+        push(0, maxOrder);
+    }
+
+    // Offset (in vertices) of a block holding at least `vertices`, or -1 if no free block is large enough
+    public int allocate(int vertices) {
+        int order = orderFor(vertices);
+        int found = order;
+        while (found <= maxOrder && freeHeads[found] == NONE) {
+            found++;
+        }
+        if (found > maxOrder) {
+            return -1;
+        }
+
+        int block = freeHeads[found];
+        remove(block, found);
+        // Keep the lower half, free the upper one, until the block is just big enough
+        while (found > order) {
+            found--;
+            push(block + (1 << found), found);
+        }
+
+        usedOrder[block] = (byte)order;
+        requested[block] = vertices;
+        requestedVertices += vertices;
+        allocatedVertices += blockVertices(order);
+        allocationCount++;
+        return block << MIN_BLOCK_SHIFT;
+    }
+
+    public void free(int offset) {
+        int block = offset >> MIN_BLOCK_SHIFT;
+        int order = usedOrder[block];
+        if (order == NONE) {
+            throw new IllegalArgumentException("No allocation at vertex " + offset);
+        }
+
+        usedOrder[block] = (byte)NONE;
+        requestedVertices -= requested[block];
+        allocatedVertices -= blockVertices(order);
+        allocationCount--;
+        insert(block, order);
+    }
+
+    // Vertices the allocation at offset can hold (its whole block)
+    public int capacityOf(int offset) {
+        int order = usedOrder[offset >> MIN_BLOCK_SHIFT];
+        return order == NONE ? 0 : blockVertices(order);
+    }
+
+    // Doubles the arena; existing offsets stay valid. The caller grows the GL buffer to match.
+    public void grow() {
+        int oldBlocks = 1 << maxOrder;
+        int blocks = oldBlocks * 2;
+        next = Arrays.copyOf(next, blocks);
+        prev = Arrays.copyOf(prev, blocks);
+        freeOrder = Arrays.copyOf(freeOrder, blocks);
+        usedOrder = Arrays.copyOf(usedOrder, blocks);
+        requested = Arrays.copyOf(requested, blocks);
+        Arrays.fill(freeOrder, oldBlocks, blocks, (byte)NONE);
+        Arrays.fill(usedOrder, oldBlocks, blocks, (byte)NONE);
+
+        int oldMaxOrder = maxOrder++;
+        freeHeads = Arrays.copyOf(freeHeads, maxOrder + 1);
+        freeHeads[maxOrder] = NONE;
+        // The new upper half is free; it merges with the old arena if that was empty
+        insert(oldBlocks, oldMaxOrder);
+    }
+
+    // Adds a free block, merging it with its buddy as far as possible
+    private void insert(int block, int order) {
+        while (order < maxOrder) {
+            int buddy = block ^ (1 << order);
+            if (freeOrder[buddy] != order) {
+                break;
+            }
+            remove(buddy, order);
+            block = Math.min(block, buddy);
+            order++;
+        }
+        push(block, order);
+    }
+
+    private void push(int block, int order) {
+        int head = freeHeads[order];
+        next[block] = head;
+        prev[block] = NONE;
+        if (head != NONE) {
+            prev[head] = block;
+        }
+        freeHeads[order] = block;
+        freeOrder[block] = (byte)order;
+    }
+
+    private void remove(int block, int order) {
+        if (prev[block] != NONE) {
+            next[prev[block]] = next[block];
+        } else {
+            freeHeads[order] = next[block];
+        }
+        if (next[block] != NONE) {
+            prev[next[block]] = prev[block];
+        }
+        freeOrder[block] = (byte)NONE;
+    }
+
+    // Smallest order whose block holds `vertices`
+    private static int orderFor(int vertices) {
+        int blocks = Math.max(1, (vertices + MIN_BLOCK_VERTICES - 1) >> MIN_BLOCK_SHIFT);
+        return 32 - Integer.numberOfLeadingZeros(blocks - 1);
+    }
+
+    private static int blockVertices(int order) {
+        return MIN_BLOCK_VERTICES << order;
+    }
+
+    // === Statistics ===
+    public int getCapacity() {
+        return blockVertices(maxOrder);
+    }
+
+    public int getAllocationCount() {
+        return allocationCount;
+    }
+
+    public long getRequestedVertices() {
+        return requestedVertices;
+    }
+
+    public long getAllocatedVertices() {
+        return allocatedVertices;
+    }
+
+    public long getFreeVertices() {
+        return getCapacity() - allocatedVertices;
+    }
+
+    public int getLargestFreeBlock() {
+        for (int order = maxOrder; order >= 0; order--) {
+            if (freeHeads[order] != NONE) {
+                return blockVertices(order);
+            }
+        }
+        return 0;
+    }
+
+    // Share of the free space outside the largest free block: 0 = one contiguous hole
+    public double getExternalFragmentation() {
+        long free = getFreeVertices();
+        return free == 0 ? 0.0 : 1.0 - (double)getLargestFreeBlock() / free;
+    }
+
+    // Share of the allocated blocks that is rounding waste
+    public double getInternalFragmentation() {
+        return allocatedVertices == 0 ? 0.0 : 1.0 - (double)requestedVertices / allocatedVertices;
+    }
+}
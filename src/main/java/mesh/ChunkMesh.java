@@ -1,189 +1,365 @@
 package mesh;
 
-import static org.lwjgl.opengl.GL15.*;
-import static org.lwjgl.opengl.GL20.*;
-import static org.lwjgl.opengl.GL30.*;
-import org.lwjgl.system.MemoryUtil;
-
 import render.ChunkMeshBuilder;
 import texture.TextureAtlas;
 import world.Chunk;
 
-import java.nio.FloatBuffer;
-import java.util.*;
+import java.nio.ByteBuffer;
 
+// One range of the shared VertexArena and one draw per vertical section (Chunk.SECTION_SIZE blocks tall),
+// each built and uploaded on its own so an edit only replaces the section it touched. Empty sections hold
+// no range. The renderer collects the draws of all visible sections into a MultiDrawList.
+// A section built patchable (one quad per face, see FaceSlotMap) takes single-block edits in place.
+// Translucent faces get a second range per section, drawn in the blended pass and re-sorted back to front
+// by TranslucentSorter as the camera moves.
+// Distant chunks are meshed coarser (see LodMeshBuilder): each section remembers the level it was
+// built at, and the renderer rebuilds it when that differs from the chunk's target level.
 public class ChunkMesh {
-    private final Map<String, MeshPart> meshParts;
-    private boolean built = false;
-    private int totalVertexCount = 0;
-
-    private static class MeshPart {
-        int vao, vbo;
-        int vertexCount;
+    // Tells sorted buffers of an older upload apart from the current one, across all meshes
+    private static long nextTranslucentGeneration = 1;
+
+    private static final int NO_RANGE = -1;
+
+    private final int chunkX, chunkZ;
+    private final Section[] sections = new Section[Chunk.SECTIONS];
+    private final int[] patchVertices = new int[QuadIndices.VERTICES_PER_QUAD];
+    private int targetLod = 0;
+
+    private static class Section {
+        int offset = NO_RANGE; // First vertex in the VertexArena
+        int vertexCount = 0;
+        int indexCount = 0;
+        boolean built = false;
+
+        // What this section was built from (see ChunkRenderer): section version, build serial and
+        // the neighbour border versions it was culled against (null for LOD meshes, which ignore neighbours)
+        long version = -1;
+        long buildSerial = -1;
+        long[] borderStamps;
+        int lod = 0;
+
+        // Patchable sections only
+        FaceSlotMap slots;
+        long lastPatchNanos;
+
+        // Translucent faces, kept on the CPU for sorting
+        int translucentOffset = NO_RANGE;
+        int translucentIndexCount = 0;
+        int[] translucentVertices;
+        long translucentGeneration = 0;
+        // Section-local camera position of the last sort request (NaN = never sorted)
+        float sortX = Float.NaN, sortY = Float.NaN, sortZ = Float.NaN;
+        boolean sortPending = false;
 
         void cleanup() {
-            if (vbo != 0) glDeleteBuffers(vbo);
-            if (vao != 0) glDeleteVertexArrays(vao);
-            vbo = 0;
-            vao = 0;
+            if (offset != NO_RANGE) VertexArena.free(offset);
+            offset = NO_RANGE;
+            vertexCount = 0;
+            indexCount = 0;
+            built = false;
+            slots = null;
+
+            if (translucentOffset != NO_RANGE) VertexArena.free(translucentOffset);
+            translucentOffset = NO_RANGE;
+            translucentIndexCount = 0;
+            translucentVertices = null;
+            sortX = sortY = sortZ = Float.NaN;
+            sortPending = false;
         }
     }
 
-    // FIXED CONSTRUCTOR - Initialize the map!
-    public ChunkMesh() {
-        this.meshParts = new HashMap<>();
-        this.built = false;
-        this.totalVertexCount = 0;
+    public ChunkMesh(int chunkX, int chunkZ) {
+        this.chunkX = chunkX;
+        this.chunkZ = chunkZ;
+        for (int i = 0; i < sections.length; i++) {
+            sections[i] = new Section();
+        }
     }
 
-    // Build from pre-generated mesh data (MAIN THREAD - OpenGL operations)
-    public void buildFromData(List<ChunkMeshData> meshDataList) {
-        cleanup(); // Clear any existing mesh
+    // Build one section from pre-generated mesh data (MAIN THREAD - OpenGL operations).
+    // Empty data just clears the section.
+    public void buildSection(int section, ChunkMeshData meshData) {
+        Section target = sections[section];
+        target.cleanup(); // Clear any existing mesh
 
-        if (meshDataList == null || meshDataList.isEmpty()) {
-            System.out.println("Warning: No mesh data provided to buildFromData");
+        if (meshData == null || meshData.isEmpty()) {
             return;
         }
 
-        totalVertexCount = 0;
+        try {
+            if (meshData.getVertexCount() > 0) {
+                upload(section, meshData.getVertexData(), meshData.getVertexCount());
+            }
+            uploadTranslucent(section, meshData.getTranslucentVertices());
+            target.built = true;
+        } finally {
+            meshData.release();
+        }
+    }
+
+    // Upload a patchable section: the range is sized for at least slots.getCapacity() quads, so later
+    // patches can add faces without reallocating it; whatever the arena rounds up to becomes extra slots
+    // (MAIN THREAD)
+    public void buildPatchableSection(int section, ChunkMeshData meshData, FaceSlotMap slots) {
+        Section target = sections[section];
+        target.cleanup();
 
-        for (ChunkMeshData data : meshDataList) {
-            if (data.vertices == null || data.vertices.length == 0) {
-                System.out.println("Warning: Empty vertex data for texture: " + data.textureName);
-                continue;
+        try {
+            target.offset = allocate(section, slots.getCapacity() * QuadIndices.VERTICES_PER_QUAD);
+            slots.setCapacity(VertexArena.capacityOf(target.offset) / QuadIndices.VERTICES_PER_QUAD);
+            if (meshData.getVertexCount() > 0) {
+                VertexArena.write(target.offset, meshData.getVertexData());
             }
+            uploadTranslucent(section, meshData.getTranslucentVertices());
+
+            target.slots = slots;
+            target.lastPatchNanos = System.nanoTime();
+            target.vertexCount = slots.getQuadCount() * QuadIndices.VERTICES_PER_QUAD;
+            target.indexCount = slots.getQuadCount() * QuadIndices.INDICES_PER_QUAD;
+            target.built = true;
+        } finally {
+            meshData.release();
+        }
+    }
+
+    // Writes (slot, v0, v1, v2, v3) entries from ChunkMeshBuilder.patchSection into the section's range
+    public void patchSection(int section, IntArrayBuilder patches) {
+        Section target = sections[section];
+        int entry = 1 + QuadIndices.VERTICES_PER_QUAD;
 
-            MeshPart part = new MeshPart();
-            createMeshPart(part, data.vertices, data.textureName);
-            meshParts.put(data.textureName, part);
-            totalVertexCount += part.vertexCount;
+        for (int i = 0; i < patches.size(); i += entry) {
+            int slot = patches.get(i);
+            for (int corner = 0; corner < patchVertices.length; corner++) {
+                patchVertices[corner] = patches.get(i + 1 + corner);
+            }
+            VertexArena.write(target.offset + slot * QuadIndices.VERTICES_PER_QUAD, patchVertices);
         }
 
-        built = !meshParts.isEmpty();
+        // New faces may have gone past the old high-water mark
+        target.vertexCount = target.slots.getQuadCount() * QuadIndices.VERTICES_PER_QUAD;
+        target.indexCount = target.slots.getQuadCount() * QuadIndices.INDICES_PER_QUAD;
+        target.lastPatchNanos = System.nanoTime();
+    }
+
+    // Slot map of a patchable section, null for a regular (greedy or naive) one
+    public FaceSlotMap getFaceSlots(int section) {
+        return sections[section].slots;
+    }
+
+    public long getLastPatchNanos(int section) {
+        return sections[section].lastPatchNanos;
     }
 
     // Build synchronously (for priority chunks)
     public void buildSync(Chunk chunk, TextureAtlas atlas) {
-        // Generate data and build immediately
-        System.out.println("Building chunk mesh synchronously...");
-        List<ChunkMeshData> meshData = ChunkMeshBuilder.generateMeshData(chunk, atlas);
+        buildSync(chunk, null, atlas);
+    }
 
-        if (meshData == null || meshData.isEmpty()) {
-            System.out.println("Warning: No mesh data generated for chunk");
-            return;
+    // neighbours: adjacent chunks by Chunk.NEG_X..POS_Z (null entries = not loaded) for border culling
+    public void buildSync(Chunk chunk, Chunk[] neighbours, TextureAtlas atlas) {
+        for (int section = 0; section < sections.length; section++) {
+            buildSync(chunk, neighbours, atlas, section);
         }
+    }
 
-        buildFromData(meshData);
+    public void buildSync(Chunk chunk, Chunk[] neighbours, TextureAtlas atlas, int section) {
+        // Generate data and build immediately
+        buildSection(section, ChunkMeshBuilder.generateMeshData(chunk, neighbours, atlas, section));
     }
 
-    private void createMeshPart(MeshPart part, float[] vertices, String textureName) {
+    // The worker already wrote the vertices into a direct buffer - nothing to copy here
+    private void upload(int section, ByteBuffer vertexData, int vertices) {
+        Section target = sections[section];
         try {
             // This runs on MAIN THREAD - OpenGL context is available
-            part.vao = glGenVertexArrays();
-            part.vbo = glGenBuffers();
+            target.offset = allocate(section, vertices);
+            VertexArena.write(target.offset, vertexData);
 
-            if (part.vao == 0 || part.vbo == 0) {
-                throw new RuntimeException("Failed to generate OpenGL objects");
-            }
-
-            FloatBuffer buffer = MemoryUtil.memAllocFloat(vertices.length);
-            buffer.put(vertices).flip();
-
-            glBindVertexArray(part.vao);
-            glBindBuffer(GL_ARRAY_BUFFER, part.vbo);
-            glBufferData(GL_ARRAY_BUFFER, buffer, GL_STATIC_DRAW);
-            MemoryUtil.memFree(buffer);
-
-            // 5 floats per vertex: position(3) + texcoord(2)
-            int stride = 5 * Float.BYTES;
-            glVertexAttribPointer(0, 3, GL_FLOAT, false, stride, 0);
-            glVertexAttribPointer(1, 2, GL_FLOAT, false, stride, 3 * Float.BYTES);
+            target.vertexCount = vertices;
+            target.indexCount = QuadIndices.indexCount(vertices);
+        } catch (Exception e) {
+            System.err.println("Error creating chunk mesh: " + e.getMessage());
+            target.cleanup();
+            throw e;
+        }
+    }
 
-            glEnableVertexAttribArray(0);
-            glEnableVertexAttribArray(1);
+    // Uploaded in mesh order; the first sort replaces it in place
+    private void uploadTranslucent(int section, int[] vertices) {
+        if (vertices == null || vertices.length == 0) {
+            return;
+        }
 
-            glBindVertexArray(0);
+        Section target = sections[section];
+        try {
+            target.translucentOffset = allocate(section, vertices.length);
+            VertexArena.write(target.translucentOffset, vertices);
 
-            part.vertexCount = vertices.length / 5;
+            target.translucentVertices = vertices;
+            target.translucentIndexCount = QuadIndices.indexCount(vertices.length);
+            target.translucentGeneration = nextTranslucentGeneration++;
         } catch (Exception e) {
-            System.err.println("Error creating mesh part for texture '" + textureName + "': " + e.getMessage());
-            part.cleanup();
+            System.err.println("Error creating translucent chunk mesh: " + e.getMessage());
+            target.cleanup();
             throw e;
         }
     }
 
-    // Render methods
-    public void render(String textureName) {
-        if (!built) {
-            System.out.println("Warning: Mesh not built, cannot render");
-            return;
+    // A range of the arena for the section's vertices, which are relative to the section origin
+    private int allocate(int section, int vertices) {
+        return VertexArena.allocate(vertices,
+                chunkX * Chunk.SIZE, section * Chunk.SECTION_SIZE, chunkZ * Chunk.SIZE);
+    }
+
+    // Queues one section's draw; vertices are placed by the origin stored with its range
+    public void addSectionDraw(int section, MultiDrawList draws) {
+        Section target = sections[section];
+        if (target.built && target.indexCount > 0) {
+            draws.add(target.offset, target.indexCount);
         }
+    }
 
-        MeshPart part = meshParts.get(textureName);
-        if (part == null || part.vertexCount == 0) {
-            System.out.println("Warning: No mesh part for texture: " + textureName);
-            return;
+    // Translucent faces of one section, in the order of its last sort (blended pass only)
+    public void addTranslucentDraw(int section, MultiDrawList draws) {
+        Section target = sections[section];
+        if (target.translucentIndexCount > 0) {
+            draws.add(target.translucentOffset, target.translucentIndexCount);
         }
+    }
 
-        glBindVertexArray(part.vao);
-        glDrawArrays(GL_TRIANGLES, 0, part.vertexCount);
-        glBindVertexArray(0);
+    public boolean hasTranslucent(int section) {
+        return sections[section].translucentIndexCount > 0;
     }
 
-    public void renderAll() {
-        if (!built || meshParts.isEmpty()) {
-            System.out.println("Warning: Mesh not built or empty, cannot renderAll");
-            return;
+    // True when the camera (section-local) moved at least threshold blocks since the last sort
+    // request and no sort is in flight
+    public boolean needsSort(int section, float camX, float camY, float camZ, float threshold) {
+        Section target = sections[section];
+        if (target.translucentIndexCount == 0 || target.sortPending) {
+            return false;
+        }
+        if (Float.isNaN(target.sortX)) {
+            return true;
         }
 
-        for (Map.Entry<String, MeshPart> entry : meshParts.entrySet()) {
-            MeshPart part = entry.getValue();
-            if (part.vertexCount == 0) continue;
+        float dx = camX - target.sortX;
+        float dy = camY - target.sortY;
+        float dz = camZ - target.sortZ;
+        return dx * dx + dy * dy + dz * dz >= threshold * threshold;
+    }
+
+    // Records the camera position the sort is for; returns the generation to hand back with the result
+    public long markSortRequested(int section, float camX, float camY, float camZ) {
+        Section target = sections[section];
+        target.sortX = camX;
+        target.sortY = camY;
+        target.sortZ = camZ;
+        target.sortPending = true;
+        return target.translucentGeneration;
+    }
+
+    public int[] getTranslucentVertices(int section) {
+        return sections[section].translucentVertices;
+    }
 
-            glBindVertexArray(part.vao);
-            glDrawArrays(GL_TRIANGLES, 0, part.vertexCount);
-            glBindVertexArray(0);
+    // Replaces the translucent buffer with a sorted copy, unless the section was rebuilt since the
+    // sort was requested. Releases sorted either way. A null sorted (failed sort) keeps the current
+    // order; the next camera move requests a new sort.
+    public void applySortedTranslucent(int section, long generation, ByteBuffer sorted) {
+        Section target = sections[section];
+        try {
+            if (generation != target.translucentGeneration || target.translucentOffset == NO_RANGE) {
+                return;
+            }
+
+            target.sortPending = false;
+            if (sorted != null) {
+                VertexArena.write(target.translucentOffset, sorted);
+            }
+        } finally {
+            NativeBufferPool.release(sorted);
         }
     }
 
-    // Getters
-    public Set<String> getTextureTypes() {
-        return meshParts.keySet();
+    public void setSectionSource(int section, long version, long buildSerial, long[] borderStamps, int lod) {
+        Section target = sections[section];
+        target.version = version;
+        target.buildSerial = buildSerial;
+        target.borderStamps = borderStamps;
+        target.lod = lod;
     }
 
-    public int getVertexCount() {
-        return totalVertexCount;
+    // Forces the section to look outdated, so the next staleness check rebuilds it
+    public void invalidateSection(int section) {
+        sections[section].version = -1;
+    }
+
+    public long getSectionVersion(int section) {
+        return sections[section].version;
     }
 
-    public int getVertexCountForTexture(String textureName) {
-        MeshPart part = meshParts.get(textureName);
-        return part != null ? part.vertexCount : 0;
+    public long getSectionSerial(int section) {
+        return sections[section].buildSerial;
     }
 
-    public int getTextureCount() {
-        return meshParts.size();
+    public long[] getSectionBorderStamps(int section) {
+        return sections[section].borderStamps;
     }
 
-    public boolean hasTexture(String textureName) {
-        return meshParts.containsKey(textureName);
+    public int getSectionLod(int section) {
+        return sections[section].lod;
     }
 
-    public boolean isBuilt() {
-        return built;
+    public int getChunkX() {
+        return chunkX;
+    }
+
+    public int getChunkZ() {
+        return chunkZ;
+    }
+
+    // Level the renderer wants this chunk at; sections built at another level are stale
+    public int getTargetLod() {
+        return targetLod;
+    }
+
+    public void setTargetLod(int targetLod) {
+        this.targetLod = targetLod;
+    }
+
+    public boolean isSectionValid(int section) {
+        return sections[section].built && sections[section].indexCount > 0;
+    }
+
+    // Getters
+    public int getVertexCount() {
+        int total = 0;
+        for (Section section : sections) {
+            total += section.vertexCount;
+        }
+        return total;
+    }
+
+    public int getIndexCount() {
+        int total = 0;
+        for (Section section : sections) {
+            total += section.indexCount;
+        }
+        return total;
     }
 
     public boolean isValid() {
-        return built && !meshParts.isEmpty();
+        for (int section = 0; section < sections.length; section++) {
+            if (isSectionValid(section) || hasTranslucent(section)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     public void cleanup() {
-        if (meshParts != null) {
-            for (MeshPart part : meshParts.values()) {
-                part.cleanup();
-            }
-            meshParts.clear();
+        for (Section section : sections) {
+            section.cleanup();
         }
-        totalVertexCount = 0;
-        built = false;
     }
-}
\ No newline at end of file
+}
@@ -1,15 +1,119 @@
 package mesh;
 
+import java.nio.ByteBuffer;
+
+/**
+ * CPU-side mesh of a chunk, all block textures in one vertex buffer.
+ *
+ * The vertices live in a direct buffer from NativeBufferPool, filled by the mesh
+ * worker, so the GL thread can upload it without copying. Whoever consumes the
+ * data calls release() once it is uploaded.
+ *
+ * Translucent faces (water) are kept apart as a plain array: they are drawn in a
+ * separate blended pass, and the mesh keeps the array to re-sort them back to front
+ * as the camera moves (see TranslucentSorter).
+ *
+ * Vertices are packed into a single int each:
+ *   bits  0-4   x (0..16, section-local)
+ *   bits  5-9   y
+ *   bits 10-14  z
+ *   bits 15-17  face normal index (Face ordinal)
+ *   bits 18-25  atlas tile index (column + row * columns)
+ *   bits 26-27  ambient occlusion (0 = fully occluded corner .. 3 = open)
+ *   bits 28-31  unused
+ * cube.vert decodes the same layout and derives the texture coordinates from
+ * position and normal, so merged quads repeat their tile without extra data.
+ */
 public class ChunkMeshData {
-    public final String textureName;
-    public final float[] vertices;
+    public static final int BYTES_PER_VERTEX = Integer.BYTES;
+
+    private static final int POSITION_BITS = 5;
+    private static final int POSITION_MASK = (1 << POSITION_BITS) - 1;
+    private static final int NORMAL_SHIFT = 15;
+    private static final int NORMAL_MASK = 0x7;
+    private static final int TILE_SHIFT = 18;
+    private static final int TILE_MASK = 0xFF;
+    private static final int AO_SHIFT = 26;
+    private static final int AO_MASK = 0x3;
+
+    public static final ChunkMeshData EMPTY = new ChunkMeshData(null, 0);
+
+    private ByteBuffer vertexData;
+    private final int vertexCount;
+    private final int[] translucentVertices; // null when there are none
+
+    // vertexData: position 0, limit vertexCount * BYTES_PER_VERTEX
+    public ChunkMeshData(ByteBuffer vertexData, int vertexCount) {
+        this(vertexData, vertexCount, null);
+    }
+
+    public ChunkMeshData(ByteBuffer vertexData, int vertexCount, int[] translucentVertices) {
+        this.vertexData = vertexData;
+        this.vertexCount = vertexCount;
+        this.translucentVertices = translucentVertices;
+    }
 
-    public ChunkMeshData(String textureName, float[] vertices) {
-        this.textureName = textureName;
-        this.vertices = vertices;
+    public boolean isEmpty() {
+        return vertexCount == 0 && !hasTranslucent();
+    }
+
+    public boolean hasTranslucent() {
+        return translucentVertices != null && translucentVertices.length > 0;
+    }
+
+    public int[] getTranslucentVertices() {
+        return translucentVertices;
+    }
+
+    public ByteBuffer getVertexData() {
+        return vertexData;
     }
 
     public int getVertexCount() {
-        return vertices.length / 5; // 5 floats per vertex (position + UV)
+        return vertexCount;
+    }
+
+    public int getByteSize() {
+        return vertexCount * BYTES_PER_VERTEX;
+    }
+
+    // Hands the buffer back to the pool; the opaque data is unusable afterwards
+    public void release() {
+        NativeBufferPool.release(vertexData);
+        vertexData = null;
+    }
+
+    // === Packed vertex encoding ===
+    public static int pack(int x, int y, int z, int normal, int tile, int ao) {
+        return (x & POSITION_MASK)
+                | (y & POSITION_MASK) << POSITION_BITS
+                | (z & POSITION_MASK) << (2 * POSITION_BITS)
+                | (normal & NORMAL_MASK) << NORMAL_SHIFT
+                | (tile & TILE_MASK) << TILE_SHIFT
+                | (ao & AO_MASK) << AO_SHIFT;
+    }
+
+    public static int unpackX(int vertex) {
+        return vertex & POSITION_MASK;
+    }
+
+    public static int unpackY(int vertex) {
+        return (vertex >>> POSITION_BITS) & POSITION_MASK;
+    }
+
+    public static int unpackZ(int vertex) {
+        return (vertex >>> (2 * POSITION_BITS)) & POSITION_MASK;
+    }
+
+    public static int unpackNormal(int vertex) {
+        return (vertex >>> NORMAL_SHIFT) & NORMAL_MASK;
+    }
+
+    public static int unpackTile(int vertex) {
+        return (vertex >>> TILE_SHIFT) & TILE_MASK;
+    }
+
+    public static int unpackAO(int vertex) {
+        return (vertex >>> AO_SHIFT) & AO_MASK;
     }
-}
\ No newline at end of file
+}
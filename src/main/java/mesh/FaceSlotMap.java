@@ -0,0 +1,87 @@
+package mesh;
+
+import world.Chunk;
+
+import java.util.Arrays;
+
+/**
+ * Where each block face of a patchable section lives in its vertex buffer.
+ *
+ * A patchable section is meshed one quad per face, and every face keeps a fixed
+ * quad slot until it disappears. Freed slots go on a free list and are drawn as
+ * degenerate quads until a new face takes them, so a block edit only rewrites the
+ * handful of slots it touched. Slots past the high-water mark are never drawn.
+ * GL-free; ChunkMesh owns the buffer, ChunkMeshBuilder fills in the slots.
+ */
+public class FaceSlotMap {
+    private static final int FACES_PER_BLOCK = 6;
+
+    private final int[] slotByFace = new int[Chunk.SIZE * Chunk.SECTION_SIZE * Chunk.SIZE * FACES_PER_BLOCK];
+    private final IntArrayBuilder freeSlots = new IntArrayBuilder(64);
+    private int quadCount = 0;  // High-water mark: slots 0..quadCount-1 are drawn
+    private int capacity = 0;   // Quads the vertex buffer has room for
+
+    public FaceSlotMap() {
+        Arrays.fill(slotByFace, -1);
+    }
+
+    // Section-local block position and Face ordinal
+    public static int faceKey(int x, int y, int z, int face) {
+        return ((x * Chunk.SECTION_SIZE + y) * Chunk.SIZE + z) * FACES_PER_BLOCK + face;
+    }
+
+    public void clear() {
+        Arrays.fill(slotByFace, -1);
+        freeSlots.clear();
+        quadCount = 0;
+        capacity = 0;
+    }
+
+    public int slotOf(int faceKey) {
+        return slotByFace[faceKey];
+    }
+
+    // A free slot (or a new one past the high-water mark); -1 when the buffer is full
+    public int assign(int faceKey) {
+        int slot;
+        if (!freeSlots.isEmpty()) {
+            slot = freeSlots.removeLast();
+        } else if (quadCount < capacity) {
+            slot = quadCount++;
+        } else {
+            return -1;
+        }
+        slotByFace[faceKey] = slot;
+        return slot;
+    }
+
+    // Frees the face's slot and returns it, or -1 if the face had none
+    public int release(int faceKey) {
+        int slot = slotByFace[faceKey];
+        if (slot >= 0) {
+            slotByFace[faceKey] = -1;
+            freeSlots.add(slot);
+        }
+        return slot;
+    }
+
+    public void setCapacity(int quads) {
+        this.capacity = Math.max(quads, quadCount);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getQuadCount() {
+        return quadCount;
+    }
+
+    public int getFreeSlotCount() {
+        return freeSlots.size();
+    }
+
+    public int getLiveQuadCount() {
+        return quadCount - freeSlots.size();
+    }
+}
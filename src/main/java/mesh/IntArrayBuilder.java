@@ -0,0 +1,66 @@
+package mesh;
+
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+/**
+ * Growable int array without boxing. Meant to be kept and reused between
+ * mesh builds: clear() keeps the backing array, so once it has grown to the
+ * largest chunk seen, building more meshes allocates nothing.
+ */
+public class IntArrayBuilder {
+    private int[] data;
+    private int size;
+
+    public IntArrayBuilder(int initialCapacity) {
+        this.data = new int[Math.max(16, initialCapacity)];
+    }
+
+    public void add(int value) {
+        if (size == data.length) {
+            grow(size + 1);
+        }
+        data[size++] = value;
+    }
+
+    public void ensureCapacity(int extra) {
+        if (size + extra > data.length) {
+            grow(size + extra);
+        }
+    }
+
+    private void grow(int minCapacity) {
+        data = Arrays.copyOf(data, Math.max(minCapacity, data.length * 2));
+    }
+
+    public int get(int index) {
+        return data[index];
+    }
+
+    // Removes and returns the last value (stack use)
+    public int removeLast() {
+        return data[--size];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    // Bulk copy of the contents at the buffer's position
+    public void copyTo(IntBuffer out) {
+        out.put(data, 0, size);
+    }
+
+    // Exact-size copy of the contents
+    public int[] toArray() {
+        return Arrays.copyOf(data, size);
+    }
+}
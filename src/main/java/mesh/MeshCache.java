@@ -0,0 +1,166 @@
+package mesh;
+
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Finished section meshes by content, so identical terrain is only meshed once.
+ *
+ * The key is a 128-bit hash of everything a mesh depends on (the section's blocks,
+ * the layers around it, the neighbours' border slices, meshing mode and LOD level;
+ * see ChunkMeshBuilder.ChunkDataSnapshot.hashContent). Vertex positions are section-
+ * local, so a hit is valid for any chunk and any section with the same content:
+ * re-entering an area, buried all-stone sections and flat terrain all come back
+ * from here instead of the mesher.
+ *
+ * Entries are plain int arrays: ChunkMeshData's direct buffer goes back to the pool
+ * after upload, so a hit copies the vertices into a fresh pooled buffer. The
+ * translucent array is shared as is - nobody writes to it after meshing.
+ * Least recently used entries are dropped once the cache holds more than MAX_BYTES.
+ */
+public final class MeshCache {
+    private static final long MAX_BYTES = 16L * 1024 * 1024;
+    private static final int ENTRY_OVERHEAD_BYTES = 96; // Key, entry and map node, roughly
+
+    private static final class Key {
+        final long hashA, hashB;
+
+        Key(long hashA, long hashB) {
+            this.hashA = hashA;
+            this.hashB = hashB;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Key key && key.hashA == hashA && key.hashB == hashB;
+        }
+
+        @Override
+        public int hashCode() {
+            return (int)hashA;
+        }
+    }
+
+    private static final class Entry {
+        final int[] vertices;     // null when the mesh has no opaque faces
+        final int[] translucent;  // null when there are none
+        final long bytes;
+
+        Entry(int[] vertices, int[] translucent) {
+            this.vertices = vertices;
+            this.translucent = translucent;
+            this.bytes = ENTRY_OVERHEAD_BYTES
+                    + (vertices != null ? (long)vertices.length * Integer.BYTES : 0)
+                    + (translucent != null ? (long)translucent.length * Integer.BYTES : 0);
+        }
+    }
+
+    // Access order, so iteration starts at the least recently used entry. Guarded by MeshCache.class
+    private static final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private static long cachedBytes = 0;
+    private static volatile boolean enabled = true;
+
+    // Statistics
+    private static long hits = 0;
+    private static long misses = 0;
+    private static long evictions = 0;
+
+    private MeshCache() {
+    }
+
+    // A fresh copy of the mesh stored under the hash, or null
+    public static ChunkMeshData get(long hashA, long hashB) {
+        if (!enabled) {
+            return null;
+        }
+
+        Entry entry;
+        synchronized (MeshCache.class) {
+            entry = entries.get(new Key(hashA, hashB));
+            if (entry == null) {
+                misses++;
+                return null;
+            }
+            hits++;
+        }
+
+        if (entry.vertices == null && entry.translucent == null) {
+            return ChunkMeshData.EMPTY;
+        }
+
+        int vertexCount = entry.vertices != null ? entry.vertices.length : 0;
+        ByteBuffer vertexData = null;
+        if (vertexCount > 0) {
+            vertexData = NativeBufferPool.acquire(vertexCount * ChunkMeshData.BYTES_PER_VERTEX);
+            vertexData.asIntBuffer().put(entry.vertices);
+        }
+        return new ChunkMeshData(vertexData, vertexCount, entry.translucent);
+    }
+
+    // Stores a copy of a freshly built mesh; data itself is left untouched for the caller
+    public static void put(long hashA, long hashB, ChunkMeshData data) {
+        if (!enabled) {
+            return;
+        }
+
+        int[] vertices = null;
+        if (data.getVertexCount() > 0) {
+            vertices = new int[data.getVertexCount()];
+            data.getVertexData().asIntBuffer().get(vertices);
+        }
+        Entry entry = new Entry(vertices, data.getTranslucentVertices());
+        if (entry.bytes > MAX_BYTES) {
+            return;
+        }
+
+        synchronized (MeshCache.class) {
+            Entry previous = entries.put(new Key(hashA, hashB), entry);
+            if (previous != null) {
+                cachedBytes -= previous.bytes;
+            }
+            cachedBytes += entry.bytes;
+
+            Iterator<Map.Entry<Key, Entry>> eldest = entries.entrySet().iterator();
+            while (cachedBytes > MAX_BYTES && eldest.hasNext()) {
+                cachedBytes -= eldest.next().getValue().bytes;
+                eldest.remove();
+                evictions++;
+            }
+        }
+    }
+
+    public static synchronized void clear() {
+        entries.clear();
+        cachedBytes = 0;
+    }
+
+    // Off for benchmarks, which mesh the same chunks over and over
+    public static void setEnabled(boolean enabled) {
+        MeshCache.enabled = enabled;
+        if (!enabled) {
+            clear();
+        }
+    }
+
+    public static synchronized long getHits() {
+        return hits;
+    }
+
+    public static synchronized long getMisses() {
+        return misses;
+    }
+
+    public static synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public static synchronized int getEntryCount() {
+        return entries.size();
+    }
+
+    public static synchronized long getCachedBytes() {
+        return cachedBytes;
+    }
+}
@@ -0,0 +1,80 @@
+package mesh;
+
+import org.lwjgl.PointerBuffer;
+import org.lwjgl.system.MemoryUtil;
+
+import java.nio.IntBuffer;
+
+import static org.lwjgl.opengl.GL11.GL_TRIANGLES;
+import static org.lwjgl.opengl.GL11.GL_UNSIGNED_INT;
+import static org.lwjgl.opengl.GL32.glMultiDrawElementsBaseVertex;
+
+/**
+ * Draws collected over a frame and submitted as one glMultiDrawElementsBaseVertex.
+ *
+ * Every draw reads the shared quad index buffer from its start, offset by the
+ * section's base vertex in the VertexArena, so only the index count and the base
+ * vertex differ per draw. Draws run in the order they were added, which the
+ * translucent pass relies on for back-to-front blending. The native arrays are
+ * reused from frame to frame and only grow; free() releases them.
+ */
+public class MultiDrawList {
+    private IntBuffer counts;
+    private IntBuffer baseVertices;
+    private PointerBuffer indexOffsets; // All zero
+    private int size = 0;
+
+    public MultiDrawList(int initialCapacity) {
+        counts = MemoryUtil.memAllocInt(initialCapacity);
+        baseVertices = MemoryUtil.memAllocInt(initialCapacity);
+        indexOffsets = MemoryUtil.memAllocPointer(initialCapacity);
+        zeroOffsets(0, initialCapacity);
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public void add(int baseVertex, int indexCount) {
+        if (size == counts.capacity()) {
+            int capacity = size * 2;
+            counts = MemoryUtil.memRealloc(counts, capacity);
+            baseVertices = MemoryUtil.memRealloc(baseVertices, capacity);
+            indexOffsets = MemoryUtil.memRealloc(indexOffsets, capacity);
+            zeroOffsets(size, capacity);
+        }
+        counts.put(size, indexCount);
+        baseVertices.put(size, baseVertex);
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Caller binds the VertexArena first
+    public void draw() {
+        if (size == 0) {
+            return;
+        }
+        counts.limit(size);
+        baseVertices.limit(size);
+        indexOffsets.limit(size);
+        glMultiDrawElementsBaseVertex(GL_TRIANGLES, counts, GL_UNSIGNED_INT, indexOffsets, baseVertices);
+        counts.clear();
+        baseVertices.clear();
+        indexOffsets.clear();
+    }
+
+    private void zeroOffsets(int from, int to) {
+        for (int i = from; i < to; i++) {
+            indexOffsets.put(i, 0L);
+        }
+    }
+
+    public void free() {
+        MemoryUtil.memFree(counts);
+        MemoryUtil.memFree(baseVertices);
+        MemoryUtil.memFree(indexOffsets);
+    }
+}
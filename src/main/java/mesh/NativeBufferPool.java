@@ -0,0 +1,102 @@
+package mesh;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool of direct ByteBuffers for mesh vertex data.
+ *
+ * Mesh workers acquire a buffer, write the finished vertices into it and hand it
+ * to the GL thread, which uploads it and releases it back here. Buffers come in
+ * power-of-two size classes so a released buffer fits the next mesh of similar
+ * size. The pool keeps at most MAX_POOLED_BYTES; anything beyond that (and buffers
+ * that are never released, e.g. from cancelled builds) is left to the GC.
+ */
+public final class NativeBufferPool {
+    private static final int MIN_CLASS_BYTES = 4 * 1024;
+    private static final int CLASS_COUNT = 12;                 // 4 KB .. 8 MB
+    private static final long MAX_POOLED_BYTES = 32L * 1024 * 1024;
+
+    @SuppressWarnings("unchecked")
+    private static final ConcurrentLinkedQueue<ByteBuffer>[] pools = new ConcurrentLinkedQueue[CLASS_COUNT];
+    private static final AtomicLong pooledBytes = new AtomicLong();
+
+    // Statistics
+    private static final AtomicLong allocations = new AtomicLong();
+    private static final AtomicLong reuses = new AtomicLong();
+
+    static {
+        for (int i = 0; i < CLASS_COUNT; i++) {
+            pools[i] = new ConcurrentLinkedQueue<>();
+        }
+    }
+
+    private NativeBufferPool() {
+    }
+
+    // Buffer with at least `bytes` capacity, position 0 and limit `bytes`, in native byte order
+    public static ByteBuffer acquire(int bytes) {
+        int sizeClass = sizeClassFor(bytes);
+        if (sizeClass >= CLASS_COUNT) {
+            allocations.incrementAndGet();
+            return allocate(bytes).limit(bytes);
+        }
+
+        ByteBuffer buffer = pools[sizeClass].poll();
+        if (buffer != null) {
+            pooledBytes.addAndGet(-buffer.capacity());
+            reuses.incrementAndGet();
+        } else {
+            buffer = allocate(MIN_CLASS_BYTES << sizeClass);
+            allocations.incrementAndGet();
+        }
+
+        buffer.clear().limit(bytes);
+        return buffer;
+    }
+
+    // Returns a buffer from acquire() to the pool. The caller must not touch it afterwards.
+    public static void release(ByteBuffer buffer) {
+        if (buffer == null) {
+            return;
+        }
+
+        int sizeClass = sizeClassFor(buffer.capacity());
+        if (sizeClass >= CLASS_COUNT || MIN_CLASS_BYTES << sizeClass != buffer.capacity()) {
+            return; // Oversized one-off
+        }
+
+        if (pooledBytes.addAndGet(buffer.capacity()) > MAX_POOLED_BYTES) {
+            pooledBytes.addAndGet(-buffer.capacity());
+            return; // Pool is full, let the GC have it
+        }
+
+        pools[sizeClass].offer(buffer);
+    }
+
+    private static int sizeClassFor(int bytes) {
+        int sizeClass = 0;
+        while (sizeClass < CLASS_COUNT && (MIN_CLASS_BYTES << sizeClass) < bytes) {
+            sizeClass++;
+        }
+        return sizeClass;
+    }
+
+    private static ByteBuffer allocate(int capacity) {
+        return ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder());
+    }
+
+    public static long getAllocations() {
+        return allocations.get();
+    }
+
+    public static long getReuses() {
+        return reuses.get();
+    }
+
+    public static long getPooledBytes() {
+        return pooledBytes.get();
+    }
+}
@@ -0,0 +1,52 @@
+package mesh;
+
+import org.lwjgl.system.MemoryUtil;
+
+import java.nio.IntBuffer;
+
+import static org.lwjgl.opengl.GL15.*;
+
+/**
+ * One element buffer shared by every chunk mesh. Quad meshes all use the same
+ * 0,1,2,2,3,0 pattern, so a single buffer sized for the largest mesh so far
+ * serves them all. It grows lazily; the buffer name never changes, so VAOs that
+ * already reference it stay valid after a resize.
+ */
+public final class QuadIndexBuffer {
+    private static final int MIN_QUADS = 4096;
+
+    private static int ebo = 0;
+    private static int capacityQuads = 0;
+
+    private QuadIndexBuffer() {
+    }
+
+    // Binds the shared buffer to the current VAO, growing it to hold at least quadCount quads
+    public static void bind(int quadCount) {
+        if (ebo == 0) {
+            ebo = glGenBuffers();
+        }
+
+        glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, ebo);
+
+        if (quadCount > capacityQuads) {
+            int newCapacity = Math.max(MIN_QUADS, Integer.highestOneBit(quadCount - 1) << 1);
+            IntBuffer indices = MemoryUtil.memAllocInt(newCapacity * QuadIndices.INDICES_PER_QUAD);
+            QuadIndices.fill(indices, 0, newCapacity);
+            indices.flip();
+            glBufferData(GL_ELEMENT_ARRAY_BUFFER, indices, GL_STATIC_DRAW);
+            MemoryUtil.memFree(indices);
+
+            capacityQuads = newCapacity;
+            System.out.println("Quad index buffer grown to " + newCapacity + " quads");
+        }
+    }
+
+    public static void cleanup() {
+        if (ebo != 0) {
+            glDeleteBuffers(ebo);
+            ebo = 0;
+        }
+        capacityQuads = 0;
+    }
+}
@@ -0,0 +1,38 @@
+package mesh;
+
+import java.nio.IntBuffer;
+
+/**
+ * Index pattern for meshes made of quads with 4 vertices each (corners 0,1,2,3),
+ * drawn as two triangles 0,1,2 and 2,3,0. Plain Java, no GL - QuadIndexBuffer
+ * uploads what this produces.
+ */
+public final class QuadIndices {
+    public static final int VERTICES_PER_QUAD = 4;
+    public static final int INDICES_PER_QUAD = 6;
+
+    private static final int[] PATTERN = {0, 1, 2, 2, 3, 0};
+
+    private QuadIndices() {
+    }
+
+    // Writes the indices of quads [firstQuad, firstQuad + quadCount) at the buffer's position
+    public static void fill(IntBuffer out, int firstQuad, int quadCount) {
+        for (int quad = firstQuad; quad < firstQuad + quadCount; quad++) {
+            int base = quad * VERTICES_PER_QUAD;
+            for (int corner : PATTERN) {
+                out.put(base + corner);
+            }
+        }
+    }
+
+    public static int[] generate(int quadCount) {
+        int[] indices = new int[quadCount * INDICES_PER_QUAD];
+        fill(IntBuffer.wrap(indices), 0, quadCount);
+        return indices;
+    }
+
+    public static int indexCount(int vertexCount) {
+        return vertexCount / VERTICES_PER_QUAD * INDICES_PER_QUAD;
+    }
+}
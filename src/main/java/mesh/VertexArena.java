@@ -0,0 +1,243 @@
+package mesh;
+
+import org.lwjgl.system.MemoryUtil;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+
+import static org.lwjgl.opengl.GL11.*;
+import static org.lwjgl.opengl.GL13.glActiveTexture;
+import static org.lwjgl.opengl.GL15.*;
+import static org.lwjgl.opengl.GL20.*;
+import static org.lwjgl.opengl.GL30.*;
+import static org.lwjgl.opengl.GL31.*;
+
+/**
+ * One vertex buffer (and one VAO) holding every chunk section's vertices.
+ *
+ * Sections get sub-ranges from an ArenaAllocator instead of their own buffer
+ * objects, so loading and unloading chunks does not churn glGenBuffers /
+ * glDeleteBuffers, and all visible sections go out in one glMultiDrawElementsBaseVertex
+ * (see MultiDrawList) without a VAO bind per draw.
+ *
+ * A multi-draw cannot change uniforms between its draws, so the section origins live
+ * in a texture buffer instead: one vec4 per allocator min-block, written when the
+ * range is allocated. BaseVertex draws include the base in gl_VertexID, so cube.vert
+ * finds a vertex's origin at gl_VertexID >> ArenaAllocator.MIN_BLOCK_SHIFT.
+ *
+ * When the allocator runs out of room the arena doubles: the old contents are copied
+ * over on the GPU and every offset stays valid. Static like QuadIndexBuffer; created
+ * on first use (MAIN THREAD - OpenGL operations).
+ */
+public final class VertexArena {
+    private static final int INITIAL_VERTICES = 1 << 20; // 4 MB of packed vertices
+    private static final int ORIGIN_FLOATS = 4;          // RGBA32F texel per min-block
+
+    private static ArenaAllocator allocator;
+    private static int vao = 0;
+    private static int vbo = 0;
+    private static int originBuffer = 0;
+    private static int originTexture = 0;
+
+    // Scratch for writing origins, grown to the largest allocation so far
+    private static FloatBuffer originScratch;
+
+    // Statistics
+    private static int grows = 0;
+
+    private VertexArena() {
+    }
+
+    // Vertex offset of a range for `vertices` vertices whose positions are relative to (originX, originY, originZ)
+    public static int allocate(int vertices, float originX, float originY, float originZ) {
+        if (allocator == null) {
+            create(INITIAL_VERTICES);
+        }
+
+        int offset;
+        while ((offset = allocator.allocate(vertices)) < 0) {
+            grow();
+        }
+
+        writeOrigins(offset, allocator.capacityOf(offset), originX, originY, originZ);
+        ensureQuadIndices(vertices / QuadIndices.VERTICES_PER_QUAD);
+        return offset;
+    }
+
+    public static void free(int offset) {
+        allocator.free(offset);
+    }
+
+    // Vertices the range at offset has room for (at least what was asked for)
+    public static int capacityOf(int offset) {
+        return allocator.capacityOf(offset);
+    }
+
+    // vertexData: position 0, whole packed vertices
+    public static void write(int offset, ByteBuffer vertexData) {
+        glBindBuffer(GL_ARRAY_BUFFER, vbo);
+        glBufferSubData(GL_ARRAY_BUFFER, (long)offset * ChunkMeshData.BYTES_PER_VERTEX, vertexData);
+        glBindBuffer(GL_ARRAY_BUFFER, 0);
+    }
+
+    public static void write(int offset, int[] vertices) {
+        glBindBuffer(GL_ARRAY_BUFFER, vbo);
+        glBufferSubData(GL_ARRAY_BUFFER, (long)offset * ChunkMeshData.BYTES_PER_VERTEX, vertices);
+        glBindBuffer(GL_ARRAY_BUFFER, 0);
+    }
+
+    // Binds the arena's VAO for a multi-draw and its origins to the given texture unit
+    public static void bind(int textureUnit) {
+        glBindVertexArray(vao);
+        glActiveTexture(textureUnit);
+        glBindTexture(GL_TEXTURE_BUFFER, originTexture);
+    }
+
+    public static void unbind(int textureUnit) {
+        glActiveTexture(textureUnit);
+        glBindTexture(GL_TEXTURE_BUFFER, 0);
+        glBindVertexArray(0);
+    }
+
+    private static void create(int vertices) {
+        allocator = new ArenaAllocator(vertices);
+        int capacity = allocator.getCapacity();
+
+        vbo = glGenBuffers();
+        vao = glGenVertexArrays();
+        originBuffer = glGenBuffers();
+        originTexture = glGenTextures();
+        if (vbo == 0 || vao == 0 || originBuffer == 0 || originTexture == 0) {
+            throw new RuntimeException("Failed to generate OpenGL objects");
+        }
+
+        glBindBuffer(GL_ARRAY_BUFFER, vbo);
+        glBufferData(GL_ARRAY_BUFFER, (long)capacity * ChunkMeshData.BYTES_PER_VERTEX, GL_DYNAMIC_DRAW);
+        glBindBuffer(GL_ARRAY_BUFFER, 0);
+        attachVertexBuffer();
+
+        glBindBuffer(GL_TEXTURE_BUFFER, originBuffer);
+        glBufferData(GL_TEXTURE_BUFFER, originBytes(capacity), GL_DYNAMIC_DRAW);
+        glBindBuffer(GL_TEXTURE_BUFFER, 0);
+        attachOriginBuffer();
+
+        System.out.println("Vertex arena created for " + capacity + " vertices");
+    }
+
+    // Doubles both buffers, copying the old contents over on the GPU
+    private static void grow() {
+        int oldCapacity = allocator.getCapacity();
+        allocator.grow();
+        int capacity = allocator.getCapacity();
+
+        vbo = copyToLarger(vbo, (long)oldCapacity * ChunkMeshData.BYTES_PER_VERTEX,
+                (long)capacity * ChunkMeshData.BYTES_PER_VERTEX);
+        originBuffer = copyToLarger(originBuffer, originBytes(oldCapacity), originBytes(capacity));
+        attachVertexBuffer();
+        attachOriginBuffer();
+
+        grows++;
+        System.out.println("Vertex arena grown to " + capacity + " vertices");
+    }
+
+    private static int copyToLarger(int buffer, long oldBytes, long newBytes) {
+        int larger = glGenBuffers();
+        glBindBuffer(GL_COPY_WRITE_BUFFER, larger);
+        glBufferData(GL_COPY_WRITE_BUFFER, newBytes, GL_DYNAMIC_DRAW);
+        glBindBuffer(GL_COPY_READ_BUFFER, buffer);
+        glCopyBufferSubData(GL_COPY_READ_BUFFER, GL_COPY_WRITE_BUFFER, 0, 0, oldBytes);
+        glBindBuffer(GL_COPY_READ_BUFFER, 0);
+        glBindBuffer(GL_COPY_WRITE_BUFFER, 0);
+        glDeleteBuffers(buffer);
+        return larger;
+    }
+
+    // One packed uint per vertex (layout in ChunkMeshData), decoded in cube.vert
+    private static void attachVertexBuffer() {
+        glBindVertexArray(vao);
+        glBindBuffer(GL_ARRAY_BUFFER, vbo);
+        glVertexAttribIPointer(0, 1, GL_UNSIGNED_INT, ChunkMeshData.BYTES_PER_VERTEX, 0);
+        glEnableVertexAttribArray(0);
+        glBindVertexArray(0);
+        glBindBuffer(GL_ARRAY_BUFFER, 0);
+    }
+
+    private static void attachOriginBuffer() {
+        glBindTexture(GL_TEXTURE_BUFFER, originTexture);
+        glTexBuffer(GL_TEXTURE_BUFFER, GL_RGBA32F, originBuffer);
+        glBindTexture(GL_TEXTURE_BUFFER, 0);
+    }
+
+    private static void writeOrigins(int offset, int vertices, float x, float y, float z) {
+        int blocks = vertices >> ArenaAllocator.MIN_BLOCK_SHIFT;
+        if (originScratch == null || originScratch.capacity() < blocks * ORIGIN_FLOATS) {
+            if (originScratch != null) {
+                MemoryUtil.memFree(originScratch);
+            }
+            originScratch = MemoryUtil.memAllocFloat(blocks * ORIGIN_FLOATS);
+        }
+
+        originScratch.clear();
+        for (int i = 0; i < blocks; i++) {
+            originScratch.put(x).put(y).put(z).put(0);
+        }
+        originScratch.flip();
+
+        glBindBuffer(GL_TEXTURE_BUFFER, originBuffer);
+        glBufferSubData(GL_TEXTURE_BUFFER, originBytes(offset), originScratch);
+        glBindBuffer(GL_TEXTURE_BUFFER, 0);
+    }
+
+    private static long originBytes(int vertices) {
+        return (long)(vertices >> ArenaAllocator.MIN_BLOCK_SHIFT) * ORIGIN_FLOATS * Float.BYTES;
+    }
+
+    // The shared quad indices are recorded in the arena's VAO; grow them for the largest range
+    private static void ensureQuadIndices(int quads) {
+        glBindVertexArray(vao);
+        QuadIndexBuffer.bind(quads);
+        glBindVertexArray(0);
+    }
+
+    // === Statistics ===
+    public static int getCapacity() {
+        return allocator != null ? allocator.getCapacity() : 0;
+    }
+
+    public static long getUsedVertices() {
+        return allocator != null ? allocator.getRequestedVertices() : 0;
+    }
+
+    public static int getRangeCount() {
+        return allocator != null ? allocator.getAllocationCount() : 0;
+    }
+
+    public static double getExternalFragmentation() {
+        return allocator != null ? allocator.getExternalFragmentation() : 0.0;
+    }
+
+    public static double getInternalFragmentation() {
+        return allocator != null ? allocator.getInternalFragmentation() : 0.0;
+    }
+
+    public static int getGrowCount() {
+        return grows;
+    }
+
+    public static void cleanup() {
+        if (allocator == null) {
+            return;
+        }
+        glDeleteBuffers(vbo);
+        glDeleteBuffers(originBuffer);
+        glDeleteTextures(originTexture);
+        glDeleteVertexArrays(vao);
+        vbo = vao = originBuffer = originTexture = 0;
+        allocator = null;
+
+        if (originScratch != null) {
+            MemoryUtil.memFree(originScratch);
+            originScratch = null;
+        }
+    }
+}
@@ -17,6 +17,7 @@ public class Player {
     private static final long MOVEMENT_THRESHOLD_MS = 100; // 100ms threshold
 
     private Vector3f velocity = new Vector3f();
+    private final Vector3f moveVelocity = new Vector3f(); // Actual displacement per second (all axes)
     private boolean onGround = false;
 
     private final float gravity = -12f;
@@ -68,6 +69,7 @@ public class Player {
     }
 
     public void update(float deltaTime, boolean forward, boolean backward, boolean left, boolean right, boolean jump) {
+        Vector3f startPos = camera.getPosition();
         Vector3f move = new Vector3f();
 
         float speed = 8f * deltaTime;
@@ -104,6 +106,15 @@ public class Player {
 
         // Set camera position at eye height above feet
         camera.setPosition(new Vector3f(feetPos.x, feetPos.y + eyeHeight, feetPos.z));
+
+        if (deltaTime > 0) {
+            moveVelocity.set(camera.getPosition()).sub(startPos).mul(1.0f / deltaTime);
+        }
+    }
+
+    // Velocity from the last update, used for predictive chunk loading
+    public Vector3f getVelocity() {
+        return new Vector3f(moveVelocity);
     }
 
     public boolean hasMovedRecently() {
@@ -1,275 +1,967 @@
 package render;
 
 import mesh.ChunkMeshData;
+import mesh.FaceSlotMap;
+import mesh.IntArrayBuilder;
+import mesh.MeshCache;
+import mesh.NativeBufferPool;
+import mesh.QuadIndices;
 import world.Chunk;
 import texture.TextureAtlas;
 import world.Block;
+import world.BlockRegistry;
 import face.Face;
 
+import java.nio.ByteBuffer;
 import java.util.*;
-import java.util.concurrent.*;
 
 public class ChunkMeshBuilder {
-    private static final ExecutorService executor = Executors.newFixedThreadPool(
+    // Which mesher generateMeshData uses
+    public enum MeshingMode {
+        NAIVE,   // One quad per visible face
+        GREEDY,  // Coplanar same-texture faces merged into maximal rectangles
+        BINARY   // Same mesh as GREEDY, culled and merged on occupancy bitmasks instead of per voxel
+    }
+
+    private static volatile MeshingMode meshingMode = MeshingMode.BINARY;
+
+    // Face.values() clones its array on every call
+    static final Face[] FACES = Face.values();
+
+    // Per face (by ordinal): axis of the normal, and the axes the texture's u and v run along
+    // FRONT, BACK, LEFT, RIGHT, TOP, BOTTOM (shared with LodMeshBuilder)
+    static final int[] NORMAL_AXIS = {2, 2, 0, 0, 1, 1};
+    static final int[] U_AXIS = {0, 0, 2, 2, 0, 0};
+    static final int[] V_AXIS = {1, 1, 1, 1, 2, 2};
+
+    // Face vertices are listed as triangles v0 v1 v2, v2 v3 v0 - these are v0..v3
+    private static final int[] QUAD_CORNERS = {0, 1, 2, 4};
+
+    // Background builds, nearest / in view first (see MeshBuildScheduler)
+    private static final MeshBuildScheduler scheduler = new MeshBuildScheduler(
             Math.max(2, Runtime.getRuntime().availableProcessors() - 1),
-            new ThreadFactory() {
-                private final ThreadFactory defaultFactory = Executors.defaultThreadFactory();
-
-                @Override
-                public Thread newThread(Runnable r) {
-                    Thread thread = defaultFactory.newThread(r);
-                    thread.setDaemon(true);
-                    thread.setPriority(Thread.MIN_PRIORITY);
-                    return thread;
-                }
-            }
+            ChunkRenderer.getRenderDistance() + 1
     );
 
-    private static final Map<String, Future<List<ChunkMeshData>>> futures = new ConcurrentHashMap<>();
+    public static MeshBuildScheduler getScheduler() {
+        return scheduler;
+    }
 
-    public static Future<List<ChunkMeshData>> buildAsync(int chunkX, int chunkZ, Chunk chunk, TextureAtlas atlas) {
-        String key = chunkX + "_" + chunkZ;
+    // Meshes one vertical section; vertex positions are relative to the section's origin
+    static ChunkMeshData generateMeshData(ChunkDataSnapshot snapshot, int section) {
+        if (!snapshot.hasVisibleBlocks(section)) {
+            return ChunkMeshData.EMPTY;
+        }
 
-        // Cancel existing task for this chunk
-        Future<List<ChunkMeshData>> existing = futures.get(key);
-        if (existing != null && !existing.isDone()) {
-            existing.cancel(true);
-            System.out.println("🔄 Cancelled previous async build for " + key);
+        // CPU only, no OpenGL! Vertices go into this thread's reusable buffers
+        MeshBuildContext context = CONTEXT.get();
+        long[] hash = context.contentHash;
+        snapshot.hashContent(section, 0, hash);
+        ChunkMeshData cached = MeshCache.get(hash[0], hash[1]);
+        if (cached != null) {
+            return cached;
         }
 
-        // IMPORTANT: Create a snapshot of the chunk data for thread safety
-        ChunkDataSnapshot snapshot = new ChunkDataSnapshot(chunk, atlas);
+        context.vertices.clear();
+        context.translucent.clear();
 
-        // Submit new task with the snapshot
-        Future<List<ChunkMeshData>> future = executor.submit(() -> {
-            try {
-                return generateMeshDataFromSnapshot(snapshot);
-            } catch (Exception e) {
-                System.err.println("Error generating mesh data for chunk " + key + ": " + e.getMessage());
-                e.printStackTrace();
-                return Collections.emptyList();
-            }
-        });
+        int baseY = section * Chunk.SECTION_SIZE;
+        switch (meshingMode) {
+            case NAIVE -> buildNaive(snapshot, baseY, context);
+            case GREEDY -> buildGreedy(snapshot, baseY, context);
+            case BINARY -> buildBinary(snapshot, baseY, context);
+        }
+
+        ChunkMeshData data = toMeshData(context);
+        MeshCache.put(hash[0], hash[1], data);
+        return data;
+    }
 
-        futures.put(key, future);
-        System.out.println("📦 Async mesh build started for " + key + " (using snapshot)");
-        return future;
+    private static ChunkMeshData toMeshData(MeshBuildContext context) {
+        if (context.vertices.isEmpty() && context.translucent.isEmpty()) {
+            return ChunkMeshData.EMPTY;
+        }
+
+        // Copy into a pooled direct buffer here on the worker, so the GL thread can upload it as is
+        int vertexCount = context.vertices.size();
+        ByteBuffer vertexData = null;
+        if (vertexCount > 0) {
+            vertexData = NativeBufferPool.acquire(vertexCount * ChunkMeshData.BYTES_PER_VERTEX);
+            context.vertices.copyTo(vertexData.asIntBuffer());
+        }
+
+        int[] translucent = context.translucent.isEmpty() ? null : context.translucent.toArray();
+        return new ChunkMeshData(vertexData, vertexCount, translucent);
     }
 
-    private static List<ChunkMeshData> generateMeshDataFromSnapshot(ChunkDataSnapshot snapshot) {
-        // Group vertices by texture (CPU only, no OpenGL!)
-        Map<String, List<Float>> verticesByTexture = new HashMap<>();
+    // Translucent faces go to their own buffer, drawn after everything opaque
+    private static IntArrayBuilder target(MeshBuildContext context, Block block) {
+        return block.isTransparent() ? context.translucent : context.vertices;
+    }
 
+    // === NAIVE: one quad per visible face ===
+    private static int buildNaive(ChunkDataSnapshot snapshot, int baseY, MeshBuildContext context) {
         int totalFaces = 0;
 
         for (int x = 0; x < Chunk.SIZE; x++) {
-            for (int y = 0; y < Chunk.SIZE; y++) {
+            for (int y = 0; y < Chunk.SECTION_SIZE; y++) {
                 for (int z = 0; z < Chunk.SIZE; z++) {
-                    Block block = snapshot.blocks[x][y][z];
+                    Block block = snapshot.getBlock(x, baseY + y, z);
                     if (block != null && block.isVisible()) {
                         // Check each face
-                        for (Face face : Face.values()) {
-                            if (isFaceVisible(snapshot.blocks, x, y, z, face)) {
+                        for (Face face : FACES) {
+                            if (isFaceVisible(snapshot, block, x, baseY + y, z, face)) {
                                 String textureName = block.getTexture(face);
+                                addQuad(target(context, block), face, x, y, z, 1, 1, 1,
+                                        snapshot.atlas.getUV(textureName), faceAO(snapshot, x, baseY + y, z, face));
+                                totalFaces++;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        return totalFaces;
+    }
 
-                                List<Float> vertices = verticesByTexture.get(textureName);
-                                if (vertices == null) {
-                                    vertices = new ArrayList<>();
-                                    verticesByTexture.put(textureName, vertices);
+    // === PATCHABLE: one quad per face at a fixed slot, so single-block edits can be patched in place ===
+    // Spare slots for faces that edits expose before the section is rebuilt
+    private static final int PATCH_HEADROOM_QUADS = 64;
+
+    // Naive mesh of the section that also records every opaque face's slot in slots.
+    // Translucent faces are not slotted; edits near them rebuild the section instead.
+    public static ChunkMeshData generatePatchableMeshData(Chunk chunk, Chunk[] neighbours, TextureAtlas atlas,
+                                                          int section, FaceSlotMap slots) {
+        MeshBuildContext context = CONTEXT.get();
+        ChunkDataSnapshot snapshot = context.snapshot;
+        snapshot.copyFrom(chunk, neighbours, atlas);
+        context.vertices.clear();
+        context.translucent.clear();
+        slots.clear();
+        slots.setCapacity(Integer.MAX_VALUE);
+
+        int baseY = section * Chunk.SECTION_SIZE;
+        for (int x = 0; x < Chunk.SIZE; x++) {
+            for (int y = 0; y < Chunk.SECTION_SIZE; y++) {
+                for (int z = 0; z < Chunk.SIZE; z++) {
+                    Block block = snapshot.getBlock(x, baseY + y, z);
+                    if (block == null || !block.isVisible()) continue;
+
+                    for (Face face : FACES) {
+                        if (!isFaceVisible(snapshot, block, x, baseY + y, z, face)) continue;
+
+                        if (!block.isTransparent()) {
+                            slots.assign(FaceSlotMap.faceKey(x, y, z, face.ordinal()));
+                        }
+                        addQuad(target(context, block), face, x, y, z, 1, 1, 1,
+                                atlas.getUV(block.getTexture(face)), faceAO(snapshot, x, baseY + y, z, face));
+                    }
+                }
+            }
+        }
+
+        int quads = context.vertices.size() / QuadIndices.VERTICES_PER_QUAD;
+        slots.setCapacity(quads + Math.max(PATCH_HEADROOM_QUADS, quads / 4));
+
+        return toMeshData(context);
+    }
+
+    /**
+     * Recomputes the faces a few changed blocks can affect - every face of the blocks in the
+     * 3x3x3 cube around each change: their own faces, the facing sides of the neighbours, and
+     * the faces whose corner AO samples the changed block - and records the slot writes as
+     * (slot, v0, v1, v2, v3) in patches. Faces that disappeared become degenerate quads;
+     * new faces take free slots. changes holds x, y, z triples in this chunk's coordinates
+     * (x or z may be -1 / SIZE for blocks of a neighbouring chunk).
+     * Returns false when the section ran out of slots or the edit reaches a translucent block,
+     * and has to be rebuilt instead.
+     */
+    public static boolean patchSection(Chunk chunk, Chunk[] neighbours, TextureAtlas atlas, int section,
+                                       int[] changes, int changeCount, FaceSlotMap slots, IntArrayBuilder patches) {
+        ChunkDataSnapshot snapshot = CONTEXT.get().snapshot;
+        snapshot.copyFrom(chunk, neighbours, atlas);
+        patches.clear();
+
+        int baseY = section * Chunk.SECTION_SIZE;
+        for (int i = 0; i < changeCount; i++) {
+            int x = changes[i * 3];
+            int y = changes[i * 3 + 1];
+            int z = changes[i * 3 + 2];
+
+            for (int dx = -1; dx <= 1; dx++) {
+                for (int dy = -1; dy <= 1; dy++) {
+                    for (int dz = -1; dz <= 1; dz++) {
+                        for (Face face : FACES) {
+                            if (!patchFace(snapshot, baseY, x + dx, y + dy, z + dz, face, slots, patches)) {
+                                return false;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean patchFace(ChunkDataSnapshot snapshot, int baseY, int x, int y, int z, Face face,
+                                     FaceSlotMap slots, IntArrayBuilder patches) {
+        int localY = y - baseY;
+        if (x < 0 || z < 0 || x >= Chunk.SIZE || z >= Chunk.SIZE || localY < 0 || localY >= Chunk.SECTION_SIZE) {
+            return true; // Not in this section
+        }
+
+        Block block = snapshot.getBlock(x, y, z);
+        if (block != null && block.isTransparent()) {
+            return false; // Translucent faces are not slotted
+        }
+
+        boolean visible = block != null && block.isVisible() && isFaceVisible(snapshot, block, x, y, z, face);
+        int key = FaceSlotMap.faceKey(x, localY, z, face.ordinal());
+        int slot = slots.slotOf(key);
+
+        if (visible) {
+            if (slot < 0) {
+                slot = slots.assign(key);
+                if (slot < 0) {
+                    return false;
+                }
+            }
+            // Rewritten even if it was already there - the block may have a different texture now
+            patches.add(slot);
+            addQuad(patches, face, x, localY, z, 1, 1, 1, snapshot.atlas.getUV(block.getTexture(face)),
+                    faceAO(snapshot, x, y, z, face));
+        } else if (slot >= 0) {
+            slots.release(key);
+            patches.ensureCapacity(1 + QuadIndices.VERTICES_PER_QUAD);
+            patches.add(slot);
+            for (int corner = 0; corner < QuadIndices.VERTICES_PER_QUAD; corner++) {
+                patches.add(0);
+            }
+        }
+        return true;
+    }
+
+    // Marks translucent faces in the greedy AO mask, above the 8 AO bits
+    private static final int TRANSLUCENT_FLAG = 1 << 8;
+
+    // === GREEDY: merge coplanar, same-texture faces into maximal rectangles ===
+    // For every face direction we sweep the layers along its normal, build a 2D mask of
+    // visible face textures and cover it with as few rectangles as possible.
+    // Sections are cubes, so every axis runs over SIZE positions; only y is offset by baseY.
+    // Faces only merge when their corner AO is the same and uniform, so the shading stays exact.
+    private static int buildGreedy(ChunkDataSnapshot snapshot, int baseY, MeshBuildContext context) {
+        int[] pos = context.pos;
+        int[] ext = context.ext;
+        String[] mask = context.mask;
+        int[] aoMask = context.aoMask;
+        int totalQuads = 0;
+
+        for (Face face : FACES) {
+            int d = NORMAL_AXIS[face.ordinal()];
+            int a = U_AXIS[face.ordinal()];
+            int b = V_AXIS[face.ordinal()];
+            int sizeA = Chunk.SIZE;
+            int sizeB = Chunk.SIZE;
+
+            for (int layer = 0; layer < Chunk.SIZE; layer++) {
+                // 1. Mask of visible faces in this layer (null = nothing to draw)
+                pos[d] = layer;
+                for (int j = 0; j < sizeB; j++) {
+                    for (int i = 0; i < sizeA; i++) {
+                        pos[a] = i;
+                        pos[b] = j;
+                        Block block = snapshot.getBlock(pos[0], baseY + pos[1], pos[2]);
+                        boolean visible = block != null && block.isVisible()
+                                && isFaceVisible(snapshot, block, pos[0], baseY + pos[1], pos[2], face);
+                        mask[i + j * sizeA] = visible ? block.getTexture(face) : null;
+                        aoMask[i + j * sizeA] = !visible ? 0
+                                : faceAO(snapshot, pos[0], baseY + pos[1], pos[2], face)
+                                | (block.isTransparent() ? TRANSLUCENT_FLAG : 0);
+                    }
+                }
+
+                // 2. Cover the mask with rectangles
+                for (int j = 0; j < sizeB; j++) {
+                    for (int i = 0; i < sizeA; ) {
+                        String texture = mask[i + j * sizeA];
+                        if (texture == null) {
+                            i++;
+                            continue;
+                        }
+
+                        // Grow along a, then along b while the whole row matches
+                        // AO and the translucent flag share the mask, so neither merges across the other
+                        int ao = aoMask[i + j * sizeA];
+                        boolean mergeable = isUniformAO(ao & 0xFF);
+                        int w = 1;
+                        while (mergeable && i + w < sizeA && texture.equals(mask[i + w + j * sizeA])
+                                && aoMask[i + w + j * sizeA] == ao) {
+                            w++;
+                        }
+
+                        int h = 1;
+                        grow:
+                        while (mergeable && j + h < sizeB) {
+                            for (int k = 0; k < w; k++) {
+                                int index = i + k + (j + h) * sizeA;
+                                if (!texture.equals(mask[index]) || aoMask[index] != ao) {
+                                    break grow;
                                 }
+                            }
+                            h++;
+                        }
 
-                                addFaceVertices(vertices, x, y, z, face, block, snapshot.atlas);
-                                totalFaces++;
+                        pos[a] = i;
+                        pos[b] = j;
+                        ext[d] = 1;
+                        ext[a] = w;
+                        ext[b] = h;
+
+                        IntArrayBuilder target = (ao & TRANSLUCENT_FLAG) != 0 ? context.translucent : context.vertices;
+                        addQuad(target, face, pos[0], pos[1], pos[2], ext[0], ext[1], ext[2],
+                                snapshot.atlas.getUV(texture), ao & 0xFF);
+                        totalQuads++;
+
+                        for (int dh = 0; dh < h; dh++) {
+                            Arrays.fill(mask, i + (j + dh) * sizeA, i + w + (j + dh) * sizeA, null);
+                        }
+                        i += w;
+                    }
+                }
+            }
+        }
+
+        return totalQuads;
+    }
+
+    // === BINARY: cull whole rows with bit operations, then merge on the resulting bits ===
+    // Every row of the section along each axis is an int with bit k + 1 set for an occupied
+    // position k, plus the neighbouring block on either end (bits 0 and SIZE + 1). A row's
+    // visible faces towards +axis are then occupied & ~(opaque >>> 1), towards -axis
+    // occupied & ~(opaque << 1). Only translucent faces against translucent blocks still
+    // need a per-block look (water against water is hidden, against other liquids not).
+    // The face bits are transposed into per-layer rows and merged like buildGreedy does,
+    // in the same order, so both produce the same mesh; only visible faces are looked up.
+    private static final int INNER_BITS = ((1 << Chunk.SIZE) - 1) << 1;
+
+    private static int buildBinary(ChunkDataSnapshot snapshot, int baseY, MeshBuildContext context) {
+        fillOccupancy(snapshot, baseY, context);
+
+        int[] pos = context.pos;
+        int[] ext = context.ext;
+        String[] mask = context.mask;
+        int[] aoMask = context.aoMask;
+        int[] layers = context.faceLayers;
+        int size = Chunk.SIZE;
+        int totalQuads = 0;
+
+        for (Face face : FACES) {
+            int d = NORMAL_AXIS[face.ordinal()];
+            int a = U_AXIS[face.ordinal()];
+            int b = V_AXIS[face.ordinal()];
+
+            // 1. Visible faces of every row along the normal, moved into rows along a per layer
+            Arrays.fill(layers, 0);
+            for (int j = 0; j < size; j++) {
+                for (int i = 0; i < size; i++) {
+                    pos[a] = i;
+                    pos[b] = j;
+                    int faces = visibleFaces(snapshot, baseY, context, face, d, pos);
+                    while (faces != 0) {
+                        int bit = Integer.numberOfTrailingZeros(faces);
+                        faces &= faces - 1;
+                        layers[(bit - 1) * size + j] |= 1 << i;
+                    }
+                }
+            }
+
+            for (int layer = 0; layer < size; layer++) {
+                int rowBase = layer * size;
+                pos[d] = layer;
+
+                // 2. Texture and AO of the visible faces only
+                for (int j = 0; j < size; j++) {
+                    for (int bits = layers[rowBase + j]; bits != 0; bits &= bits - 1) {
+                        int i = Integer.numberOfTrailingZeros(bits);
+                        pos[a] = i;
+                        pos[b] = j;
+                        Block block = snapshot.getBlock(pos[0], baseY + pos[1], pos[2]);
+                        mask[i + j * size] = block.getTexture(face);
+                        aoMask[i + j * size] = faceAO(snapshot, pos[0], baseY + pos[1], pos[2], face)
+                                | (block.isTransparent() ? TRANSLUCENT_FLAG : 0);
+                    }
+                }
+
+                // 3. Cover the set bits with rectangles, clearing them as they are used
+                for (int j = 0; j < size; j++) {
+                    while (layers[rowBase + j] != 0) {
+                        int row = layers[rowBase + j];
+                        int i = Integer.numberOfTrailingZeros(row);
+                        String texture = mask[i + j * size];
+                        int ao = aoMask[i + j * size];
+                        boolean mergeable = isUniformAO(ao & 0xFF);
+
+                        int w = 1;
+                        while (mergeable && i + w < size && (row & (1 << (i + w))) != 0
+                                && texture.equals(mask[i + w + j * size]) && aoMask[i + w + j * size] == ao) {
+                            w++;
+                        }
+                        int run = ((1 << w) - 1) << i;
+
+                        int h = 1;
+                        grow:
+                        while (mergeable && j + h < size && (layers[rowBase + j + h] & run) == run) {
+                            for (int k = 0; k < w; k++) {
+                                int index = i + k + (j + h) * size;
+                                if (!texture.equals(mask[index]) || aoMask[index] != ao) {
+                                    break grow;
+                                }
                             }
+                            h++;
+                        }
+
+                        pos[a] = i;
+                        pos[b] = j;
+                        ext[d] = 1;
+                        ext[a] = w;
+                        ext[b] = h;
+
+                        IntArrayBuilder target = (ao & TRANSLUCENT_FLAG) != 0 ? context.translucent : context.vertices;
+                        addQuad(target, face, pos[0], pos[1], pos[2], ext[0], ext[1], ext[2],
+                                snapshot.atlas.getUV(texture), ao & 0xFF);
+                        totalQuads++;
+
+                        for (int dh = 0; dh < h; dh++) {
+                            layers[rowBase + j + dh] &= ~run;
                         }
                     }
                 }
             }
         }
 
-        System.out.println("Generated mesh data for chunk " + snapshot.chunkX + "," + snapshot.chunkZ +
-                ": " + totalFaces + " faces, " + verticesByTexture.size() + " texture groups");
+        return totalQuads;
+    }
+
+    // Rows along x are indexed y * SIZE + z, along y x * SIZE + z, along z x * SIZE + y
+    private static int rowIndex(int axis, int[] pos) {
+        return switch (axis) {
+            case 0 -> pos[1] * Chunk.SIZE + pos[2];
+            case 1 -> pos[0] * Chunk.SIZE + pos[2];
+            default -> pos[0] * Chunk.SIZE + pos[1];
+        };
+    }
 
-        // Convert to ChunkMeshData objects
-        List<ChunkMeshData> result = new ArrayList<>();
-        for (Map.Entry<String, List<Float>> entry : verticesByTexture.entrySet()) {
-            if (!entry.getValue().isEmpty()) {
-                float[] vertexArray = new float[entry.getValue().size()];
-                for (int i = 0; i < vertexArray.length; i++) {
-                    vertexArray[i] = entry.getValue().get(i);
+    // Occupancy rows of the section (see buildBinary), opaque and translucent blocks apart,
+    // transposed from the snapshot's column bitmasks without touching a single Block
+    private static void fillOccupancy(ChunkDataSnapshot snapshot, int baseY, MeshBuildContext context) {
+        fillOccupancy(snapshot.opaqueColumns, snapshot.borderOpaque, context.opaqueRows, baseY, context.bitMatrix);
+        fillOccupancy(snapshot.translucentColumns, snapshot.borderTranslucent, context.translucentRows, baseY,
+                context.bitMatrix);
+
+        // Nothing is seen from below the world
+        if (baseY == 0) {
+            int[] yRows = context.opaqueRows[1];
+            for (int row = 0; row < yRows.length; row++) {
+                yRows[row] |= 1;
+            }
+        }
+    }
+
+    private static void fillOccupancy(long[] columns, long[][] border, int[][] rows, int baseY, int[] matrix) {
+        int size = Chunk.SIZE;
+        long sectionBits = (1L << size) - 1;
+        int[] xRows = rows[0];
+        int[] yRows = rows[1];
+        int[] zRows = rows[2];
+
+        // Along y the column is the row, with the blocks just below and above the section
+        // (nothing is meshed above the chunk, which is where the shift runs out)
+        for (int column = 0; column < size * size; column++) {
+            long bits = columns[column];
+            int row = (int)((bits >>> baseY) & sectionBits) << 1;
+            if (baseY > 0) {
+                row |= (int)((bits >>> (baseY - 1)) & 1);
+            }
+            if (baseY + size < Chunk.HEIGHT) {
+                row |= (int)((bits >>> (baseY + size)) & 1) << (size + 1);
+            }
+            yRows[column] = row;
+        }
+
+        // Along x and z: each x-y (or z-y) slice of columns is a 16x16 bit matrix to transpose
+        for (int z = 0; z < size; z++) {
+            for (int x = 0; x < size; x++) {
+                matrix[x] = (int)((columns[x * size + z] >>> baseY) & sectionBits);
+            }
+            transpose16(matrix);
+            for (int y = 0; y < size; y++) {
+                xRows[y * size + z] = matrix[y] << 1;
+            }
+        }
+        for (int x = 0; x < size; x++) {
+            for (int z = 0; z < size; z++) {
+                matrix[z] = (int)((columns[x * size + z] >>> baseY) & sectionBits);
+            }
+            transpose16(matrix);
+            for (int y = 0; y < size; y++) {
+                zRows[x * size + y] = matrix[y] << 1;
+            }
+        }
+
+        // The neighbouring chunks' facing columns on either end of the x and z rows
+        for (int i = 0; i < size; i++) {
+            setBorderBits(xRows, border[Chunk.NEG_X][i], baseY, i, size, 0);
+            setBorderBits(xRows, border[Chunk.POS_X][i], baseY, i, size, size + 1);
+            setBorderBits(zRows, border[Chunk.NEG_Z][i], baseY, i * size, 1, 0);
+            setBorderBits(zRows, border[Chunk.POS_Z][i], baseY, i * size, 1, size + 1);
+        }
+    }
+
+    // In place: bit c of word r moves to bit r of word c. Swaps 8x8 blocks, then 4x4, 2x2 and single bits.
+    private static void transpose16(int[] m) {
+        int mask = 0x00FF;
+        for (int j = 8; j != 0; j >>= 1, mask ^= mask << j) {
+            for (int k = 0; k < 16; k = ((k | j) + 1) & ~j) {
+                int t = ((m[k] >>> j) ^ m[k | j]) & mask;
+                m[k] ^= t << j;
+                m[k | j] ^= t;
+            }
+        }
+    }
+
+    // Sets bit in row base + y * stride for every y of the section the border column occupies
+    private static void setBorderBits(int[] rows, long column, int baseY, int base, int stride, int bit) {
+        for (int bits = (int)((column >>> baseY) & ((1L << Chunk.SIZE) - 1)); bits != 0; bits &= bits - 1) {
+            int y = Integer.numberOfTrailingZeros(bits);
+            rows[base + y * stride] |= 1 << bit;
+        }
+    }
+
+    // Visible faces of the row through pos along axis d, bit k + 1 for position k. pos[d] is clobbered.
+    private static int visibleFaces(ChunkDataSnapshot snapshot, int baseY, MeshBuildContext context,
+                                    Face face, int d, int[] pos) {
+        int row = rowIndex(d, pos);
+        int opaque = context.opaqueRows[d][row];
+        int translucent = context.translucentRows[d][row];
+        boolean positive = face.dx + face.dy + face.dz > 0;
+
+        int opaqueNext = positive ? opaque >>> 1 : opaque << 1;
+        int translucentNext = positive ? translucent >>> 1 : translucent << 1;
+        int faces = (opaque | translucent) & ~opaqueNext & INNER_BITS;
+
+        // Translucent against translucent: hidden only between blocks of the same kind
+        for (int ambiguous = translucent & translucentNext & faces; ambiguous != 0; ambiguous &= ambiguous - 1) {
+            int bit = Integer.numberOfTrailingZeros(ambiguous);
+            pos[d] = bit - 1;
+            Block block = snapshot.getBlock(pos[0], baseY + pos[1], pos[2]);
+            if (!isFaceVisible(snapshot, block, pos[0], baseY + pos[1], pos[2], face)) {
+                faces &= ~(1 << bit);
+            }
+        }
+        return faces;
+    }
+
+    // Just the culling step of each approach, counting the visible faces of one section
+    // (for FaceCullingBenchmark): per block and face as buildGreedy does, or per row as buildBinary does
+    public static int countVisibleFaces(ChunkDataSnapshot snapshot, int section, boolean bitmasks) {
+        MeshBuildContext context = CONTEXT.get();
+        int[] pos = context.pos;
+        int baseY = section * Chunk.SECTION_SIZE;
+        int count = 0;
+
+        if (bitmasks) {
+            fillOccupancy(snapshot, baseY, context);
+            for (Face face : FACES) {
+                int d = NORMAL_AXIS[face.ordinal()];
+                int a = U_AXIS[face.ordinal()];
+                int b = V_AXIS[face.ordinal()];
+                for (int j = 0; j < Chunk.SIZE; j++) {
+                    for (int i = 0; i < Chunk.SIZE; i++) {
+                        pos[a] = i;
+                        pos[b] = j;
+                        count += Integer.bitCount(visibleFaces(snapshot, baseY, context, face, d, pos));
+                    }
                 }
-                result.add(new ChunkMeshData(entry.getKey(), vertexArray));
             }
+            return count;
         }
 
-        return result;
+        for (Face face : FACES) {
+            for (int x = 0; x < Chunk.SIZE; x++) {
+                for (int y = 0; y < Chunk.SECTION_SIZE; y++) {
+                    for (int z = 0; z < Chunk.SIZE; z++) {
+                        Block block = snapshot.getBlock(x, baseY + y, z);
+                        if (block != null && block.isVisible()
+                                && isFaceVisible(snapshot, block, x, baseY + y, z, face)) {
+                            count++;
+                        }
+                    }
+                }
+            }
+        }
+        return count;
     }
 
-    // Updated to use snapshot
-    private static boolean isFaceVisible(Block[][][] blocks, int x, int y, int z, Face face) {
+    // A face shows unless an opaque block covers it; touching translucent blocks of the same kind
+    // (water against water) hide each other too
+    private static boolean isFaceVisible(ChunkDataSnapshot snapshot, Block block, int x, int y, int z, Face face) {
         int nx = x + face.dx;
         int ny = y + face.dy;
         int nz = z + face.dz;
 
-        // Check bounds
-        if (nx < 0 || ny < 0 || nz < 0 || nx >= Chunk.SIZE || ny >= Chunk.SIZE || nz >= Chunk.SIZE) {
-            return true; // Edge of chunk, always visible
+        Block neighbor;
+        if (ny < 0) {
+            return false; // Bottom of the world, only visible from outside it
+        } else if (ny >= Chunk.HEIGHT) {
+            return true;  // Nothing is meshed above the chunk
+        } else if (nx < 0) {
+            neighbor = snapshot.getBorderBlock(Chunk.NEG_X, ny, nz);
+        } else if (nx >= Chunk.SIZE) {
+            neighbor = snapshot.getBorderBlock(Chunk.POS_X, ny, nz);
+        } else if (nz < 0) {
+            neighbor = snapshot.getBorderBlock(Chunk.NEG_Z, ny, nx);
+        } else if (nz >= Chunk.SIZE) {
+            neighbor = snapshot.getBorderBlock(Chunk.POS_Z, ny, nx);
+        } else {
+            neighbor = snapshot.getBlock(nx, ny, nz);
+        }
+
+        if (neighbor == null || !neighbor.isVisible()) {
+            return true;
+        }
+        return neighbor.isTransparent() && !neighbor.getName().equals(block.getName());
+    }
+
+    // === Ambient occlusion: per face corner, from the blocks around it in the layer in front of the face ===
+    // Returns 2 bits per corner (QUAD_CORNERS order): 3 = open .. 0 = both sides blocked
+    private static int faceAO(ChunkDataSnapshot snapshot, int x, int y, int z, Face face) {
+        int a = U_AXIS[face.ordinal()];
+        int b = V_AXIS[face.ordinal()];
+        float[][] verts = face.getVertices();
+
+        // The (empty) block the face looks into; corners sample its neighbours in the face plane
+        int fx = x + face.dx;
+        int fy = y + face.dy;
+        int fz = z + face.dz;
+
+        int pattern = 0;
+        for (int i = 0; i < QUAD_CORNERS.length; i++) {
+            float[] vertex = verts[QUAD_CORNERS[i]];
+            int da = vertex[a] > 0.5f ? 1 : -1;
+            int db = vertex[b] > 0.5f ? 1 : -1;
+
+            boolean side1 = isOccluder(snapshot, fx, fy, fz, a, da, b, 0);
+            boolean side2 = isOccluder(snapshot, fx, fy, fz, a, 0, b, db);
+            boolean corner = isOccluder(snapshot, fx, fy, fz, a, da, b, db);
+
+            int ao = side1 && side2 ? 0 : 3 - ((side1 ? 1 : 0) + (side2 ? 1 : 0) + (corner ? 1 : 0));
+            pattern |= ao << (2 * i);
         }
+        return pattern;
+    }
+
+    private static boolean isUniformAO(int pattern) {
+        return pattern == 0 || pattern == 0x55 || pattern == 0xAA || pattern == 0xFF;
+    }
+
+    // Offsets (x, y, z) by da along axis a and db along axis b, then checks for a visible block
+    private static boolean isOccluder(ChunkDataSnapshot snapshot, int x, int y, int z, int a, int da, int b, int db) {
+        x += (a == 0 ? da : 0) + (b == 0 ? db : 0);
+        y += (a == 1 ? da : 0) + (b == 1 ? db : 0);
+        z += (a == 2 ? da : 0) + (b == 2 ? db : 0);
 
-        Block neighbor = blocks[nx][ny][nz];
-        return neighbor == null || !neighbor.isVisible();
+        if (y < 0 || y >= Chunk.HEIGHT) {
+            return false;
+        }
+
+        // Opaque occupancy bits, no Block lookups
+        boolean insideX = x >= 0 && x < Chunk.SIZE;
+        boolean insideZ = z >= 0 && z < Chunk.SIZE;
+        long column;
+        if (insideX && insideZ) {
+            column = snapshot.opaqueColumns[x * Chunk.SIZE + z];
+        } else if (insideZ) {
+            column = snapshot.borderOpaque[x < 0 ? Chunk.NEG_X : Chunk.POS_X][z];
+        } else if (insideX) {
+            column = snapshot.borderOpaque[z < 0 ? Chunk.NEG_Z : Chunk.POS_Z][x];
+        } else {
+            return false; // Diagonal chunk - not in the snapshot, counts as open
+        }
+        return (column >>> y & 1) != 0;
     }
 
     // NEW: Thread-safe chunk data snapshot
-    private static class ChunkDataSnapshot {
-        private final int chunkX, chunkZ;
-        private final Block[][][] blocks;
-        private final TextureAtlas atlas;
+    public static class ChunkDataSnapshot {
+        private int chunkX, chunkZ;
+        private TextureAtlas atlas;
+        // Flat copy of the whole column, indexed (x * HEIGHT + y) * SIZE + z
+        private final Block[] blocks = new Block[Chunk.SIZE * Chunk.HEIGHT * Chunk.SIZE];
+        // The neighbours' slices touching each side, indexed y * SIZE + (z or x); null if not loaded
+        private final Block[][] borders = new Block[4][Chunk.HEIGHT * Chunk.SIZE];
+        private final boolean[] hasBorder = new boolean[4];
+        private final boolean[] sectionVisible = new boolean[Chunk.SECTIONS];
+        // Occupancy columns (Chunk.getOpaqueColumn) indexed x * SIZE + z, and the neighbours' facing columns by z or x
+        private final long[] opaqueColumns = new long[Chunk.SIZE * Chunk.SIZE];
+        private final long[] translucentColumns = new long[Chunk.SIZE * Chunk.SIZE];
+        private final long[][] borderOpaque = new long[4][Chunk.SIZE];
+        private final long[][] borderTranslucent = new long[4][Chunk.SIZE];
+        // hashContent's idOf memo
+        private String lastHashedName;
+        private byte lastHashedId;
+
+        ChunkDataSnapshot() {
+        }
+
+        public ChunkDataSnapshot(Chunk chunk, Chunk[] neighbours, TextureAtlas atlas) {
+            copyFrom(chunk, neighbours, atlas);
+        }
 
-        public ChunkDataSnapshot(Chunk chunk, TextureAtlas atlas) {
+        // Create a copy of the block data for thread safety
+        void copyFrom(Chunk chunk, Chunk[] neighbours, TextureAtlas atlas) {
             this.chunkX = chunk.chunkX;
             this.chunkZ = chunk.chunkZ;
             this.atlas = atlas;
 
-            // Create a copy of the block data for thread safety
-            this.blocks = new Block[Chunk.SIZE][Chunk.SIZE][Chunk.SIZE];
+            for (int section = 0; section < Chunk.SECTIONS; section++) {
+                sectionVisible[section] = chunk.hasVisibleBlocks(section);
+            }
+
+            int i = 0;
             for (int x = 0; x < Chunk.SIZE; x++) {
-                for (int y = 0; y < Chunk.SIZE; y++) {
+                for (int y = 0; y < Chunk.HEIGHT; y++) {
                     for (int z = 0; z < Chunk.SIZE; z++) {
-                        this.blocks[x][y][z] = chunk.getBlock(x, y, z);
+                        blocks[i++] = chunk.getBlock(x, y, z);
                     }
                 }
+                for (int z = 0; z < Chunk.SIZE; z++) {
+                    opaqueColumns[x * Chunk.SIZE + z] = chunk.getOpaqueColumn(x, z);
+                    translucentColumns[x * Chunk.SIZE + z] = chunk.getTranslucentColumn(x, z);
+                }
+            }
+
+            for (int side = 0; side < 4; side++) {
+                Chunk neighbour = neighbours != null ? neighbours[side] : null;
+                hasBorder[side] = neighbour != null;
+                if (neighbour != null) {
+                    copyBorder(neighbour, side);
+                } else {
+                    Arrays.fill(borderOpaque[side], 0);
+                    Arrays.fill(borderTranslucent[side], 0);
+                }
             }
         }
-    }
 
-    // Add this method to RenderManager if not exists
-    public void forceRebuildChunk(int chunkX, int chunkZ) {
-        // Delegate to ChunkRenderer
-        // You'll need to add this method to RenderManager too
-    }
+        // Copies the neighbour's slice that faces this chunk
+        private void copyBorder(Chunk neighbour, int side) {
+            Block[] border = borders[side];
+            int last = Chunk.SIZE - 1;
+            for (int i = 0; i < Chunk.SIZE; i++) {
+                int x = side == Chunk.NEG_X ? last : side == Chunk.POS_X ? 0 : i;
+                int z = side == Chunk.NEG_Z ? last : side == Chunk.POS_Z ? 0 : i;
+                borderOpaque[side][i] = neighbour.getOpaqueColumn(x, z);
+                borderTranslucent[side][i] = neighbour.getTranslucentColumn(x, z);
+            }
 
-    public static List<ChunkMeshData> generateMeshData(Chunk chunk, TextureAtlas atlas) {
-        // Group vertices by texture (CPU only, no OpenGL!)
-        Map<String, List<Float>> verticesByTexture = new HashMap<>();
+            for (int y = 0; y < Chunk.HEIGHT; y++) {
+                for (int i = 0; i < Chunk.SIZE; i++) {
+                    border[y * Chunk.SIZE + i] = switch (side) {
+                        case Chunk.NEG_X -> neighbour.getBlock(last, y, i);
+                        case Chunk.POS_X -> neighbour.getBlock(0, y, i);
+                        case Chunk.NEG_Z -> neighbour.getBlock(i, y, last);
+                        default -> neighbour.getBlock(i, y, 0);
+                    };
+                }
+            }
+        }
 
-        int totalFaces = 0;
-        for (int x = 0; x < Chunk.SIZE; x++) {
-            for (int y = 0; y < Chunk.SIZE; y++) {
-                for (int z = 0; z < Chunk.SIZE; z++) {
-                    Block block = chunk.getBlock(x, y, z);
-                    if (block != null && block.isVisible()) {
-                        // Check each face
-                        for (Face face : Face.values()) {
-                            if (isFaceVisible(chunk, x, y, z, face)) {
-                                String textureName = block.getTexture(face);
+        Block getBlock(int x, int y, int z) {
+            return blocks[(x * Chunk.HEIGHT + y) * Chunk.SIZE + z];
+        }
 
-                                List<Float> vertices = verticesByTexture.get(textureName);
-                                if (vertices == null) {
-                                    vertices = new ArrayList<>();
-                                    verticesByTexture.put(textureName, vertices);
-                                }
+        boolean hasVisibleBlocks(int section) {
+            return sectionVisible[section];
+        }
 
-                                addFaceVertices(vertices, x, y, z, face, block, atlas);
-                                totalFaces++;
-                            }
+        int getChunkX() {
+            return chunkX;
+        }
+
+        int getChunkZ() {
+            return chunkZ;
+        }
+
+        TextureAtlas getAtlas() {
+            return atlas;
+        }
+
+        // Unloaded neighbours count as air, so the chunk stays closed until they arrive
+        Block getBorderBlock(int side, int y, int i) {
+            return hasBorder[side] ? borders[side][y * Chunk.SIZE + i] : null;
+        }
+
+        // 128-bit hash (out[0], out[1]) of everything the section's mesh at `level` depends on, for MeshCache.
+        // Full detail looks one block past the section (culling and AO): its layers plus the one above and
+        // below, and the neighbours' slices over the same height. The section index is left out, so equal
+        // content anywhere shares a mesh; where the column ends goes in instead, as it changes culling and AO.
+        // LOD meshes see the whole column and no neighbours, and do depend on which section they are.
+        void hashContent(int section, int level, long[] out) {
+            int baseY = section * Chunk.SECTION_SIZE;
+            int minY = level == 0 ? Math.max(0, baseY - 1) : 0;
+            int maxY = level == 0 ? Math.min(Chunk.HEIGHT, baseY + Chunk.SECTION_SIZE + 1) : Chunk.HEIGHT;
+
+            long salt = ((long)meshingMode.ordinal() << 48) | ((long)level << 40)
+                    | ((long)(baseY - minY) << 32) | ((long)(maxY - baseY) << 24)
+                    | (level == 0 ? 0 : section);
+            long hashA = HASH_SEED_A ^ salt;
+            long hashB = HASH_SEED_B ^ System.identityHashCode(atlas);
+            long word = 0;
+            int packed = 0;
+
+            // Eight block ids per word; the regions are multiples of eight blocks, so no word straddles two
+            for (int x = 0; x < Chunk.SIZE; x++) {
+                int start = (x * Chunk.HEIGHT + minY) * Chunk.SIZE;
+                int end = (x * Chunk.HEIGHT + maxY) * Chunk.SIZE;
+                for (int i = start; i < end; i++) {
+                    word = word << 8 | idOf(blocks[i]);
+                    if (++packed == 8) {
+                        hashA = mixA(hashA, word);
+                        hashB = mixB(hashB, word);
+                        word = 0;
+                        packed = 0;
+                    }
+                }
+            }
+
+            if (level == 0) {
+                for (int side = 0; side < 4; side++) {
+                    for (int i = minY * Chunk.SIZE; i < maxY * Chunk.SIZE; i++) {
+                        word = word << 8 | (hasBorder[side] ? idOf(borders[side][i]) : BlockRegistry.AIR);
+                        if (++packed == 8) {
+                            hashA = mixA(hashA, word);
+                            hashB = mixB(hashB, word);
+                            word = 0;
+                            packed = 0;
                         }
                     }
                 }
             }
-        }
 
+            out[0] = finish(hashA);
+            out[1] = finish(hashB ^ hashA);
+        }
 
-        // Convert to ChunkMeshData objects
-        List<ChunkMeshData> result = new ArrayList<>();
-        for (Map.Entry<String, List<Float>> entry : verticesByTexture.entrySet()) {
-            if (!entry.getValue().isEmpty()) {
-                // Convert List<Float> to float[] for better performance
-                float[] vertexArray = new float[entry.getValue().size()];
-                for (int i = 0; i < vertexArray.length; i++) {
-                    vertexArray[i] = entry.getValue().get(i);
-                }
-                result.add(new ChunkMeshData(entry.getKey(), vertexArray));
+        // BlockRegistry.idOf, remembering the last name: runs of the same block skip the string switch.
+        // The id (air included) only depends on the name, and block names are literals, so == will do
+        private byte idOf(Block block) {
+            if (block == null) {
+                return BlockRegistry.AIR;
+            }
+            String name = block.getName();
+            if (name != lastHashedName) {
+                lastHashedName = name;
+                lastHashedId = BlockRegistry.idOf(block);
             }
+            return lastHashedId;
         }
 
-        return result;
-    }
+        private static final long HASH_SEED_A = 0x9E3779B97F4A7C15L;
+        private static final long HASH_SEED_B = 0xC2B2AE3D27D4EB4FL;
 
-    private static void addFaceVertices(List<Float> vertices, int x, int y, int z, Face face,
-                                        Block block, TextureAtlas atlas) {
-        float[][] verts = face.getVertices();
-        String textureName = block.getTexture(face);
-        TextureAtlas.UVCoords uv = atlas.getUV(textureName);
-
-        // Define UV coordinates for this face
-        float[][] texCoords;
-
-        switch (face) {
-            case TOP:
-                texCoords = new float[][] {
-                        {uv.u1, uv.v2}, {uv.u2, uv.v2}, {uv.u2, uv.v1},
-                        {uv.u2, uv.v1}, {uv.u1, uv.v1}, {uv.u1, uv.v2}
-                };
-                break;
-            case BOTTOM:
-                texCoords = new float[][] {
-                        {uv.u1, uv.v1}, {uv.u2, uv.v1}, {uv.u2, uv.v2},
-                        {uv.u2, uv.v2}, {uv.u1, uv.v2}, {uv.u1, uv.v1}
-                };
-                break;
-            default: // Sides
-                texCoords = new float[][] {
-                        {uv.u1, uv.v2}, {uv.u2, uv.v2}, {uv.u2, uv.v1},
-                        {uv.u2, uv.v1}, {uv.u1, uv.v1}, {uv.u1, uv.v2}
-                };
-        }
-
-        // Add 6 vertices (2 triangles)
-        for (int i = 0; i < 6; i++) {
-            // Position
-            vertices.add(verts[i][0] + x);
-            vertices.add(verts[i][1] + y);
-            vertices.add(verts[i][2] + z);
-            // Texture coordinates
-            vertices.add(texCoords[i][0]);
-            vertices.add(texCoords[i][1]);
+        private static long mixA(long hash, long word) {
+            return Long.rotateLeft(hash ^ word * 0x87C37B91114253D5L, 31) * 0x4CF5AD432745937FL;
+        }
+
+        private static long mixB(long hash, long word) {
+            hash = (hash + word) * 0xFF51AFD7ED558CCDL;
+            return hash ^ hash >>> 29;
+        }
+
+        // MurmurHash3's 64-bit finaliser
+        private static long finish(long hash) {
+            hash ^= hash >>> 33;
+            hash *= 0xFF51AFD7ED558CCDL;
+            hash ^= hash >>> 33;
+            hash *= 0xC4CEB9FE1A85EC53L;
+            return hash ^ hash >>> 33;
         }
     }
 
-    private static boolean isFaceVisible(Chunk chunk, int x, int y, int z, Face face) {
-        int nx = x + face.dx;
-        int ny = y + face.dy;
-        int nz = z + face.dz;
+    // === Per-thread scratch state, reused across builds so the mesher allocates nothing per face ===
+    private static class MeshBuildContext {
+        private static final int INITIAL_VERTICES = 16 * 1024;
+
+        final IntArrayBuilder vertices = new IntArrayBuilder(INITIAL_VERTICES);
+        final IntArrayBuilder translucent = new IntArrayBuilder(1024);
+        final String[] mask = new String[Chunk.SIZE * Chunk.SIZE];
+        final int[] aoMask = new int[Chunk.SIZE * Chunk.SIZE];
+        // Binary mesher: occupancy rows per axis and the visible face bits per layer
+        final int[][] opaqueRows = new int[3][Chunk.SIZE * Chunk.SIZE];
+        final int[][] translucentRows = new int[3][Chunk.SIZE * Chunk.SIZE];
+        final int[] faceLayers = new int[Chunk.SIZE * Chunk.SIZE];
+        final int[] bitMatrix = new int[Chunk.SIZE];
+        final long[] contentHash = new long[2];
+        final int[] pos = new int[3];
+        final int[] ext = new int[3];
+        // Used by the synchronous path, which copies and meshes on the same thread
+        final ChunkDataSnapshot snapshot = new ChunkDataSnapshot();
+    }
 
-        // Check bounds
-        if (nx < 0 || ny < 0 || nz < 0 || nx >= Chunk.SIZE || ny >= Chunk.SIZE || nz >= Chunk.SIZE) {
-            return true; // Edge of chunk, always visible
+    private static final ThreadLocal<MeshBuildContext> CONTEXT = ThreadLocal.withInitial(MeshBuildContext::new);
+
+    public static ChunkMeshData generateMeshData(Chunk chunk, TextureAtlas atlas, int section) {
+        return generateMeshData(chunk, null, atlas, section);
+    }
+
+    public static ChunkMeshData generateMeshData(Chunk chunk, Chunk[] neighbours, TextureAtlas atlas, int section) {
+        // Same thread end to end, so the snapshot buffer can be reused too
+        ChunkDataSnapshot snapshot = CONTEXT.get().snapshot;
+        snapshot.copyFrom(chunk, neighbours, atlas);
+        return generateMeshData(snapshot, section);
+    }
+
+    // Emits one quad (4 vertices) covering ex * ey * ez blocks starting at (x, y, z).
+    // The extent along the face normal must be 1. Texture coordinates are not stored:
+    // cube.vert derives them from position and normal, which also repeats the tile across merged quads.
+    // ao: per-corner AO from faceAO.
+    static void addQuad(IntArrayBuilder vertices, Face face, int x, int y, int z,
+                        int ex, int ey, int ez, TextureAtlas.UVCoords uv, int ao) {
+        float[][] verts = face.getVertices();
+        int normal = face.ordinal();
+
+        vertices.ensureCapacity(QuadIndices.VERTICES_PER_QUAD);
+
+        // The shared index buffer splits every quad along v0-v2. Starting one corner later
+        // splits it along v1-v3 instead: pick the diagonal whose ends match best, so a lone
+        // dark (or light) corner stays within one triangle instead of streaking across the quad
+        int ao0 = ao & 3, ao1 = (ao >> 2) & 3, ao2 = (ao >> 4) & 3, ao3 = (ao >> 6) & 3;
+        int first = Math.abs(ao1 - ao3) < Math.abs(ao0 - ao2) ? 1 : 0;
+
+        // Add the 4 corners; the shared index buffer turns them into 2 triangles
+        for (int n = 0; n < QUAD_CORNERS.length; n++) {
+            int i = (first + n) % QUAD_CORNERS.length;
+            int corner = QUAD_CORNERS[i];
+            vertices.add(ChunkMeshData.pack(
+                    x + (int)verts[corner][0] * ex,
+                    y + (int)verts[corner][1] * ey,
+                    z + (int)verts[corner][2] * ez,
+                    normal, uv.tileIndex, (ao >> (2 * i)) & 3));
         }
+    }
 
-        Block neighbor = chunk.getBlock(nx, ny, nz);
-        return neighbor == null || !neighbor.isVisible();
+    public static MeshingMode getMeshingMode() {
+        return meshingMode;
+    }
+
+    public static void setMeshingMode(MeshingMode mode) {
+        meshingMode = mode;
     }
 
     public static void cancelAll() {
-        for (Future<List<ChunkMeshData>> future : futures.values()) {
-            if (!future.isDone()) {
-                future.cancel(true);
-            }
-        }
-        futures.clear();
+        scheduler.clear();
     }
 
     public static void shutdown() {
-        cancelAll();
-        executor.shutdown();
-        try {
-            if (!executor.awaitTermination(1, TimeUnit.SECONDS)) {
-                executor.shutdownNow();
-            }
-        } catch (InterruptedException e) {
-            executor.shutdownNow();
-            Thread.currentThread().interrupt();
-        }
+        scheduler.shutdown();
     }
-}
\ No newline at end of file
+}
@@ -1,10 +1,19 @@
 package render;
 
+import mesh.ArenaAllocator;
 import mesh.ChunkMesh;
 import mesh.ChunkMeshData;
-import org.joml.Matrix4f;
+import mesh.FaceSlotMap;
+import mesh.IntArrayBuilder;
+import mesh.MeshCache;
+import mesh.MultiDrawList;
+import mesh.NativeBufferPool;
+import mesh.QuadIndexBuffer;
+import mesh.VertexArena;
 import org.joml.Vector3f;
+import org.lwjgl.opengl.GL11;
 import org.lwjgl.opengl.GL13;
+import shader.FrameUniforms;
 import shader.Shader;
 import camera.Camera;
 import texture.TextureAtlas;
@@ -12,8 +21,8 @@ import world.Chunk;
 import world.WorldManager;
 
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
 import java.util.*;
-import java.util.concurrent.Future;
 
 public class ChunkRenderer {
     private final Shader shader;
@@ -23,13 +32,46 @@ public class ChunkRenderer {
     private final ShadowManager shadowManager;
 
     // Performance settings
-    private static final int RENDER_DISTANCE = 4;
+    // Chunks beyond a few are meshed coarser (LodMeshBuilder), which is what makes this distance affordable
+    private static final int RENDER_DISTANCE = 16;
+    // (dx, dz) chunk offsets within RENDER_DISTANCE, nearest first, so the visible list needs no per-frame sort
+    private static final int[] RANGE_OFFSETS = rangeOffsets(RENDER_DISTANCE);
+
+    // Per-thread allocation counter (HotSpot), for the render loop's bytes-per-frame statistic
+    private static final com.sun.management.ThreadMXBean THREAD_BEAN =
+            ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                    && bean.isThreadAllocatedMemorySupported() ? bean : null;
+
     private final int MAX_ASYNC_BUILDS_PER_FRAME = 12;
     private final int MAX_SYNC_BUILDS_PER_FRAME = 5;
 
+    // Border stamp for a side whose neighbour was not loaded when the mesh was built
+    private static final long NO_NEIGHBOUR = -1;
+
+    // Incremental patching of edited sections: more changes than this are rebuilt instead
+    private static final int MAX_PATCH_CHANGES = 32;
+    // Patched sections go back to a compact greedy mesh once left alone this long,
+    // or sooner when too many of their slots are free (drawn as degenerate quads)
+    private static final long COMPACT_DELAY_NANOS = 5_000_000_000L;
+    private static final int COMPACT_MIN_FREE_SLOTS = 64;
+
+    // Translucent sections are re-sorted once the camera has moved this many blocks since their last sort
+    private static final float SORT_THRESHOLD = 1.0f;
+    private static final float WATER_ALPHA = 0.7f;
+
+    // How often meshes of chunks the world has unloaded are freed
+    private static final int PRUNE_INTERVAL_FRAMES = 60;
+
     // Mesh cache
     private final Map<String, ChunkMesh> chunkMeshes = new HashMap<>();
-    private final Map<String, Future<List<ChunkMeshData>>> pendingBuilds = new HashMap<>();
+    private final MeshBuildScheduler buildScheduler = ChunkMeshBuilder.getScheduler();
+    private final TranslucentSorter translucentSorter = new TranslucentSorter();
+
+    // Time-to-first-visible-mesh: when each visible, still meshless chunk was first seen
+    private final Map<String, Long> firstVisibleNanos = new HashMap<>();
+    private long firstMeshSamples = 0;
+    private double firstMeshTotalMs = 0;
+    private double firstMeshMaxMs = 0;
 
     // Track which chunks are loaded from disk (modified)
     private final Set<String> savedChunks = new HashSet<>();
@@ -37,10 +79,44 @@ public class ChunkRenderer {
     // Priority chunks (block breaking)
     private final List<String> priorityChunks = new ArrayList<>();
 
+    // This frame's chunks in range with their meshes, and the camera they were collected for
+    private final VisibleChunkList visibleChunks = new VisibleChunkList(RANGE_OFFSETS.length / 2);
+    private final Vector3f cameraPos = new Vector3f();
+    private final Vector3f cameraFront = new Vector3f();
+
+    // Frame lighting, reused every frame and uploaded through FrameUniforms
+    private final Vector3f sunDir = new Vector3f();
+    private final Vector3f sunColor = new Vector3f();
+    private final Vector3f ambient = new Vector3f();
+
+    // This frame's section draws, submitted as one multi-draw per pass
+    private final MultiDrawList opaqueDraws = new MultiDrawList(1024);
+    private final MultiDrawList translucentDraws = new MultiDrawList(256);
+
+    // Sections outside the camera's view are not drawn; updated from the frame's projection * view
+    private final FrustumCuller frustumCuller = new FrustumCuller();
+
     // Statistics
     private int frameCount = 0;
+    private int drawCalls = 0; // Section draws in this frame's opaque multi-draw
     private int asyncBuildsCompleted = 0;
     private int syncBuildsCompleted = 0;
+    private long staleResultsDropped = 0;
+    private long patchCount = 0;
+    private long patchNanosTotal = 0;
+    private long patchNanosMax = 0;
+    private long compactionsQueued = 0;
+    private int translucentDrawCalls = 0;
+    private final int[] lodChunksDrawn = new int[LodMeshBuilder.LEVELS];
+    private long sortsRequested = 0;
+    private long meshesUnloaded = 0;
+    private long frameAllocatedBytes = 0; // Allocated by render() since the last stats line, -1 if unmeasurable
+    private int framesSinceLog = 0;
+
+    // Scratch for patching (render thread only)
+    private final int[] changeScratch = new int[MAX_PATCH_CHANGES * 3];
+    private final int[] neighbourChangeScratch = new int[MAX_PATCH_CHANGES * 3];
+    private final IntArrayBuilder patchScratch = new IntArrayBuilder(256);
 
     public ChunkRenderer(WorldManager world, Camera cam, ShadowManager shadow) throws IOException {
         this.worldManager = world;
@@ -55,10 +131,8 @@ public class ChunkRenderer {
         for (Chunk chunk : initialChunks) {
             if (chunk.hasVisibleBlocks()) {
                 String key = getChunkKey(chunk.chunkX, chunk.chunkZ);
-                ChunkMesh mesh = new ChunkMesh();
-                mesh.buildSync(chunk, textureAtlas);
-                chunkMeshes.put(key, mesh);
-                System.out.println("Built mesh for " + key + ": " + mesh.getVertexCount() + " vertices");
+                rebuildSync(key, chunk, false);
+                System.out.println("Built mesh for " + key + ": " + chunkMeshes.get(key).getVertexCount() + " vertices");
             }
         }
         System.out.println("=== END ===");
@@ -77,65 +151,190 @@ public class ChunkRenderer {
         return x + "_" + z;
     }
 
-    private List<Chunk> getVisibleChunks() {
-        List<Chunk> visible = new ArrayList<>();
-        Vector3f playerPos = camera.getPosition();
-        int playerChunkX = (int)Math.floor(playerPos.x / 16);
-        int playerChunkZ = (int)Math.floor(playerPos.z / 16);
+    // === Border culling: meshes hide faces against their neighbours' edge slices ===
+    private Chunk[] getNeighbours(Chunk chunk) {
+        Chunk[] neighbours = new Chunk[4];
+        for (int side = 0; side < neighbours.length; side++) {
+            neighbours[side] = worldManager.getNeighbour(chunk, side);
+        }
+        return neighbours;
+    }
 
-        // Circular render distance
-        for (int dx = -RENDER_DISTANCE; dx <= RENDER_DISTANCE; dx++) {
-            for (int dz = -RENDER_DISTANCE; dz <= RENDER_DISTANCE; dz++) {
-                if (dx * dx + dz * dz > RENDER_DISTANCE * RENDER_DISTANCE) {
-                    continue;
-                }
+    // What each neighbour's facing border looked like when these neighbours were snapshotted, by section and side
+    private static long[][] borderStamps(Chunk[] neighbours) {
+        long[][] stamps = new long[Chunk.SECTIONS][neighbours.length];
+        for (int section = 0; section < Chunk.SECTIONS; section++) {
+            for (int side = 0; side < neighbours.length; side++) {
+                stamps[section][side] = neighbours[side] != null
+                        ? neighbours[side].getBorderVersion(Chunk.oppositeSide(side), section)
+                        : NO_NEIGHBOUR;
+            }
+        }
+        return stamps;
+    }
 
-                int chunkX = playerChunkX + dx;
-                int chunkZ = playerChunkZ + dz;
+    // Bit per section whose mesh is outdated (see isSectionStale)
+    private int staleSections(Chunk chunk, ChunkMesh mesh) {
+        int mask = 0;
+        for (int section = 0; section < Chunk.SECTIONS; section++) {
+            if (isSectionStale(chunk, mesh, section)) {
+                mask |= 1 << section;
+            }
+        }
+        return mask;
+    }
 
-                Chunk chunk = worldManager.getChunkAt(chunkX, chunkZ);
-                if (chunk != null && chunk.hasVisibleBlocks()) {
-                    visible.add(chunk);
-                }
+    // True when the section changed since its mesh was built, the chunk moved to another LOD level, or a
+    // neighbour has loaded or changed along the section's shared border. A neighbour unloading does not count - the culled faces face away from the render area.
+    private boolean isSectionStale(Chunk chunk, ChunkMesh mesh, int section) {
+        if (mesh.getSectionVersion(section) != chunk.getSectionVersion(section)
+                || mesh.getSectionLod(section) != mesh.getTargetLod()) {
+            return true;
+        }
+
+        long[] stamps = mesh.getSectionBorderStamps(section);
+        if (stamps == null) {
+            return false;
+        }
+
+        for (int side = 0; side < stamps.length; side++) {
+            Chunk neighbour = worldManager.getNeighbour(chunk, side);
+            if (neighbour != null && neighbour.getBorderVersion(Chunk.oppositeSide(side), section) != stamps[side]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Empty sections are never meshed: drop whatever they showed and mark them current.
+    // Returns the sections of the mask that still need building.
+    private int clearEmptySections(Chunk chunk, ChunkMesh mesh, int sectionMask, long[][] stamps) {
+        for (int section = 0; section < Chunk.SECTIONS; section++) {
+            int bit = 1 << section;
+            if ((sectionMask & bit) == 0 || chunk.hasVisibleBlocks(section)) continue;
+
+            mesh.buildSection(section, ChunkMeshData.EMPTY);
+            setSectionSource(mesh, section, chunk.getSectionVersion(section), buildScheduler.nextSerial(),
+                    stamps, mesh.getTargetLod());
+            sectionMask &= ~bit;
+        }
+        return sectionMask;
+    }
+
+    // LOD meshes ignore their neighbours, so they keep no border stamps
+    private static void setSectionSource(ChunkMesh mesh, int section, long version, long serial,
+                                         long[][] stamps, int lod) {
+        mesh.setSectionSource(section, version, serial, lod == 0 ? stamps[section] : null, lod);
+    }
+
+    // Distance in chunks from the camera to the chunk's centre, what the LOD level is chosen by
+    private float chunkDistance(Chunk chunk) {
+        float dx = chunk.chunkX + 0.5f - cameraPos.x / Chunk.SIZE;
+        float dz = chunk.chunkZ + 0.5f - cameraPos.z / Chunk.SIZE;
+        return (float)Math.sqrt(dx * dx + dz * dz);
+    }
+
+    // Loaded chunks with visible blocks within the circular render distance, nearest first
+    private void collectVisibleChunks() {
+        camera.getPosition(cameraPos);
+        camera.getFront(cameraFront);
+        int playerChunkX = (int)Math.floor(cameraPos.x / 16);
+        int playerChunkZ = (int)Math.floor(cameraPos.z / 16);
+
+        visibleChunks.clear();
+        for (int i = 0; i < RANGE_OFFSETS.length; i += 2) {
+            Chunk chunk = worldManager.getChunkAt(playerChunkX + RANGE_OFFSETS[i], playerChunkZ + RANGE_OFFSETS[i + 1]);
+            if (chunk != null && chunk.hasVisibleBlocks()) {
+                visibleChunks.add(chunk, chunkMeshes.get(chunk.getKey()), chunkDistance(chunk));
             }
         }
+    }
+
+    // A mesh outlives its chunk until here: give its arena ranges back and drop its queued builds and sorts
+    private void pruneUnloadedMeshes() {
+        Iterator<Map.Entry<String, ChunkMesh>> iterator = chunkMeshes.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, ChunkMesh> entry = iterator.next();
+            ChunkMesh mesh = entry.getValue();
+            if (worldManager.getChunkAt(mesh.getChunkX(), mesh.getChunkZ()) != null) continue;
+
+            String key = entry.getKey();
+            buildScheduler.discard(key);
+            translucentSorter.cancel(key);
+            firstVisibleNanos.remove(key);
+            mesh.cleanup();
+            iterator.remove();
+            meshesUnloaded++;
+        }
+    }
+
+    // Bytes allocated by the calling thread so far, -1 where the JVM cannot tell
+    private static long threadAllocatedBytes() {
+        return THREAD_BEAN != null ? THREAD_BEAN.getCurrentThreadAllocatedBytes() : -1;
+    }
 
-        // Sort by distance (closest first)
-        visible.sort((c1, c2) -> {
-            float dist1 = (float)Math.pow(c1.chunkX - playerChunkX, 2) +
-                    (float)Math.pow(c1.chunkZ - playerChunkZ, 2);
-            float dist2 = (float)Math.pow(c2.chunkX - playerChunkX, 2) +
-                    (float)Math.pow(c2.chunkZ - playerChunkZ, 2);
-            return Float.compare(dist1, dist2);
-        });
+    private static int[] rangeOffsets(int distance) {
+        List<int[]> offsets = new ArrayList<>();
+        for (int dx = -distance; dx <= distance; dx++) {
+            for (int dz = -distance; dz <= distance; dz++) {
+                if (dx * dx + dz * dz <= distance * distance) {
+                    offsets.add(new int[] {dx, dz});
+                }
+            }
+        }
+        offsets.sort(Comparator.comparingInt(o -> o[0] * o[0] + o[1] * o[1]));
 
-        return visible;
+        int[] flat = new int[offsets.size() * 2];
+        for (int i = 0; i < offsets.size(); i++) {
+            flat[i * 2] = offsets.get(i)[0];
+            flat[i * 2 + 1] = offsets.get(i)[1];
+        }
+        return flat;
     }
 
     public void render() {
+        long allocatedBefore = threadAllocatedBytes();
         shader.bind();
 
         // Setup textures and uniforms
         setupRenderState();
 
+        // Free meshes of unloaded chunks before any of them can be collected for drawing
+        if (frameCount % PRUNE_INTERVAL_FRAMES == 0) {
+            pruneUnloadedMeshes();
+        }
+
         // Get visible chunks
-        List<Chunk> visibleChunks = getVisibleChunks();
+        collectVisibleChunks();
 
         // Process async builds that have completed
         processCompletedAsyncBuilds();
 
         // Start new async builds for needed chunks
-        startNewAsyncBuilds(visibleChunks);
+        startNewAsyncBuilds();
 
         // Process priority chunks synchronously
         processPriorityChunks();
 
         // Render all available meshes
-        renderChunks(visibleChunks);
+        renderChunks();
+
+        // Then water, blended over the opaque world, farthest first
+        requestTranslucentSorts();
+        processCompletedSorts();
+        renderTranslucentChunks();
 
         // Cleanup
         cleanupRenderState();
 
+        // Measured before the stats line, which allocates for its formatting
+        if (allocatedBefore >= 0 && frameAllocatedBytes >= 0) {
+            frameAllocatedBytes += threadAllocatedBytes() - allocatedBefore;
+        } else {
+            frameAllocatedBytes = -1;
+        }
+        framesSinceLog++;
+
         // Log statistics occasionally
         if (frameCount % 120 == 0) { // Every 2 seconds at 60 FPS
             logStatistics(visibleChunks.size());
@@ -149,27 +348,30 @@ public class ChunkRenderer {
         GL13.glActiveTexture(GL13.GL_TEXTURE0);
         textureAtlas.getTexture().bind();
         shader.setUniform1i("u_Texture", 0);
+        shader.setUniform1f("u_TileSize", textureAtlas.getTileUVSize());
+        shader.setUniform1f("u_Alpha", 1.0f);
+
+        // Section origins by arena block (bound with the arena in each pass)
+        shader.setUniform1i("u_SectionOrigins", 2);
+        shader.setUniform1i("u_OriginBlockShift", ArenaAllocator.MIN_BLOCK_SHIFT);
 
         // Bind shadow map
         if (shadowManager != null) {
             GL13.glActiveTexture(GL13.GL_TEXTURE1);
             shadowManager.bindShadowMap();
             shader.setUniform1i("u_ShadowMap", 1);
-            shader.setUniformMat4f("u_LightSpaceMatrix", shadowManager.getLightSpaceMatrix());
         }
-
-        // Set lighting uniforms
-        setupLightingUniforms();
     }
 
-    private void setupLightingUniforms() {
+    // Camera, light and time for this frame into the shared uniform buffer; call before any pass draws
+    public void updateFrameUniforms() {
         // Slower day/night cycle (4 minutes)
         float dayCycle = 24000.0f; // 4 minutes in milliseconds
         float time = (System.currentTimeMillis() % (int)dayCycle) / dayCycle;
         float sunAngle = time * 2.0f * (float)Math.PI;
 
         // Sun direction with smooth animation
-        Vector3f sunDir = new Vector3f(
+        sunDir.set(
                 (float)Math.sin(sunAngle) * 0.8f,
                 Math.max(0.0f, (float)Math.cos(sunAngle)) * 0.7f + 0.3f, // Never goes below 0.3
                 -0.3f
@@ -177,22 +379,19 @@ public class ChunkRenderer {
 
         // Dynamic colors based on sun height
         float sunHeight = sunDir.y;
-        Vector3f sunColor;
-        Vector3f ambient;
-
         if (sunHeight > 0.6f) {
             // Midday
-            sunColor = new Vector3f(1.0f, 0.95f, 0.85f);
-            ambient = new Vector3f(0.25f, 0.28f, 0.32f);
+            sunColor.set(1.0f, 0.95f, 0.85f);
+            ambient.set(0.25f, 0.28f, 0.32f);
         } else if (sunHeight > 0.3f) {
             // Morning/Evening
             float t = (sunHeight - 0.3f) / 0.3f;
-            sunColor = new Vector3f(
+            sunColor.set(
                     1.0f,
                     0.7f + 0.25f * t,
                     0.4f + 0.45f * t
             );
-            ambient = new Vector3f(
+            ambient.set(
                     0.20f + 0.05f * t,
                     0.22f + 0.06f * t,
                     0.25f + 0.07f * t
@@ -200,96 +399,124 @@ public class ChunkRenderer {
         } else {
             // Dawn/Dusk/Night
             float t = sunHeight / 0.3f;
-            sunColor = new Vector3f(
+            sunColor.set(
                     0.3f + 0.7f * t,
                     0.3f + 0.4f * t,
                     0.5f + 0.35f * t
             );
-            ambient = new Vector3f(
+            ambient.set(
                     0.10f + 0.10f * t,
                     0.12f + 0.10f * t,
                     0.15f + 0.10f * t
             );
         }
 
-        // Set all uniforms
-        shader.setUniform3f("u_LightDir", sunDir);
-        shader.setUniform3f("u_LightColor", sunColor);
-        shader.setUniform3f("u_Ambient", ambient);
-        shader.setUniform3f("u_ViewPos", camera.getPosition());
-        shader.setUniform1f("u_Time", System.currentTimeMillis() / 1000.0f);
-
-        // Shader mode settings
-        shader.setUniform1i("u_UseFog", 1);      // Disable fog for performance
-        shader.setUniform1i("u_UsePBR", 1);      // Simple lighting (faster)
-        shader.setUniform1i("u_UseShadows", 1);  // Enable shadows
+        FrameUniforms.setCamera(camera.getProjection(), camera.getView(), camera.getPosition(cameraPos));
+        if (shadowManager != null) {
+            FrameUniforms.setLightSpace(shadowManager.getLightSpaceMatrix());
+        }
+        FrameUniforms.setLighting(sunDir, sunColor, ambient);
+        FrameUniforms.setTime(System.currentTimeMillis() / 1000.0f);
 
-        // Material properties (can be per-block later)
-        shader.setUniform1f("u_Roughness", 0.8f);
-        shader.setUniform1f("u_Metallic", 0.0f);
+        // Shader mode settings: fog, PBR, shadows
+        FrameUniforms.setFlags(true, true, true);
+        FrameUniforms.upload();
     }
 
     private void processCompletedAsyncBuilds() {
         asyncBuildsCompleted = 0;
-        Iterator<Map.Entry<String, Future<List<ChunkMeshData>>>> iterator =
-                pendingBuilds.entrySet().iterator();
-
-        while (iterator.hasNext() && asyncBuildsCompleted < MAX_ASYNC_BUILDS_PER_FRAME) {
-            Map.Entry<String, Future<List<ChunkMeshData>>> entry = iterator.next();
-
-            if (entry.getValue().isDone()) {
-                try {
-                    List<ChunkMeshData> meshData = entry.getValue().get();
-                    if (meshData != null && !meshData.isEmpty()) {
-                        // Create mesh on main thread (OpenGL context available)
-                        ChunkMesh mesh = new ChunkMesh();
-                        mesh.buildFromData(meshData);
-                        chunkMeshes.put(entry.getKey(), mesh);
-                        asyncBuildsCompleted++;
-
-                        System.out.println("✅ Async mesh built for chunk " + entry.getKey());
-                    }
-                } catch (Exception e) {
-                    System.err.println("Failed to get async mesh data for " + entry.getKey() + ": " + e.getMessage());
+
+        MeshBuildScheduler.Result result;
+        while (asyncBuildsCompleted < MAX_ASYNC_BUILDS_PER_FRAME && (result = buildScheduler.pollCompleted()) != null) {
+            MeshBuildScheduler.Task task = result.task;
+            Chunk chunk = worldManager.getChunkAt(task.chunkX, task.chunkZ);
+            ChunkMesh mesh = chunk != null ? chunkMeshes.computeIfAbsent(task.key, k -> new ChunkMesh(task.chunkX, task.chunkZ)) : null;
+            boolean installed = false;
+
+            for (int section = 0; section < Chunk.SECTIONS; section++) {
+                ChunkMeshData meshData = result.sectionData[section];
+                if (meshData == null) continue;
+
+                // Stale: the section changed (or the chunk was reloaded) after the snapshot,
+                // or a newer build of it is already installed
+                if (mesh == null || chunk.getSectionVersion(section) != task.sectionVersions[section]
+                        || mesh.getSectionSerial(section) > task.serial) {
+                    meshData.release();
+                    staleResultsDropped++;
+                    continue;
                 }
-                iterator.remove();
+
+                // Upload on main thread (OpenGL context available).
+                // An empty result is kept too (fully culled section), otherwise it would be rebuilt every frame.
+                mesh.buildSection(section, meshData);
+                setSectionSource(mesh, section, task.sectionVersions[section], task.serial, task.borderStamps, task.lod);
+                installed = true;
+            }
+
+            if (installed) {
+                recordFirstMesh(task.key);
+                asyncBuildsCompleted++;
             }
         }
     }
 
-    private void startNewAsyncBuilds(List<Chunk> visibleChunks) {
+    private void startNewAsyncBuilds() {
+        buildScheduler.updateCamera(cameraPos, cameraFront);
         int started = 0;
+        long now = System.nanoTime();
 
-        for (Chunk chunk : visibleChunks) {
-            if (started >= MAX_ASYNC_BUILDS_PER_FRAME) break;
+        for (int i = 0; i < visibleChunks.size(); i++) {
+            Chunk chunk = visibleChunks.chunk(i);
+            String key = chunk.getKey();
 
-            String key = getChunkKey(chunk.chunkX, chunk.chunkZ);
-
-            // Skip if already have mesh, building, or is priority
-            if (chunkMeshes.containsKey(key) ||
-                    pendingBuilds.containsKey(key) ||
-                    priorityChunks.contains(key)) {
-                continue;
+            // A mesh may have been created since collectVisibleChunks by a finished async build
+            ChunkMesh mesh = visibleChunks.mesh(i);
+            if (mesh == null) {
+                mesh = chunkMeshes.get(key);
             }
+            if (mesh == null) {
+                mesh = new ChunkMesh(chunk.chunkX, chunk.chunkZ);
+                mesh.setTargetLod(LodMeshBuilder.levelFor(visibleChunks.distance(i)));
+                chunkMeshes.put(key, mesh);
+                firstVisibleNanos.putIfAbsent(key, now);
+            } else {
+                mesh.setTargetLod(LodMeshBuilder.selectLevel(visibleChunks.distance(i), mesh.getTargetLod()));
+            }
+            visibleChunks.setMesh(i, mesh);
+
+            // Skip if every section is current; outdated sections are rebuilt
+            // (their old mesh stays on screen until the new one is ready),
+            // patched ones are compacted back into a regular mesh
+            int compact = sectionsToCompact(mesh, now);
+            int stale = staleSections(chunk, mesh) | compact;
+            if (stale == 0) continue;
+
+            if (started >= MAX_ASYNC_BUILDS_PER_FRAME) continue;
 
-            // Skip if chunk is modified (will be handled by priority or sync)
-            if (chunk.isModified()) {
-                // Modified chunks should be built synchronously to ensure correct state
+            // Skip if already scheduled or is priority (edited chunks are rebuilt synchronously).
+            // Freshly generated chunks still report isModified() until saved, so that flag is not checked here.
+            if (buildScheduler.isScheduled(key) || priorityChunks.contains(key)) {
                 continue;
             }
 
-            // Start async build
-            Future<List<ChunkMeshData>> future = ChunkMeshBuilder.buildAsync(
-                    chunk.chunkX, chunk.chunkZ, chunk, textureAtlas
-            );
-            pendingBuilds.put(key, future);
-            started++;
+            Chunk[] neighbours = getNeighbours(chunk);
+            long[][] stamps = borderStamps(neighbours);
+            stale = clearEmptySections(chunk, mesh, stale, stamps);
+            if (stale == 0) continue;
 
+            // Queue async build - the scheduler decides the order
+            buildScheduler.submit(key, chunk, stale, neighbours, textureAtlas, stamps, mesh.getTargetLod());
+            compactionsQueued += Integer.bitCount(stale & compact);
+            started++;
         }
     }
 
     private void processPriorityChunks() {
         syncBuildsCompleted = 0;
+        if (priorityChunks.isEmpty()) {
+            return;
+        }
+        List<Chunk> rebuilt = new ArrayList<>();
 
         for (String chunkKey : priorityChunks) {
             if (syncBuildsCompleted >= MAX_SYNC_BUILDS_PER_FRAME) break;
@@ -300,71 +527,275 @@ public class ChunkRenderer {
 
             Chunk chunk = worldManager.getChunkAt(chunkX, chunkZ);
             if (chunk != null) {
-                // Cancel any pending async build
-                Future<List<ChunkMeshData>> pending = pendingBuilds.remove(chunkKey);
-                if (pending != null && !pending.isDone()) {
-                    pending.cancel(true);
-                    System.out.println("❌ Cancelled async build for priority chunk " + chunkKey);
+                rebuildSync(chunkKey, chunk, true);
+                chunk.markClean(); // Only mark clean after successful build
+                rebuilt.add(chunk);
+
+                syncBuildsCompleted++;
+            }
+        }
+
+        // An edit on a chunk border exposes or hides faces in the neighbour too - fix it in the same frame
+        for (Chunk chunk : rebuilt) {
+            for (int side = 0; side < 4; side++) {
+                Chunk neighbour = worldManager.getNeighbour(chunk, side);
+                if (neighbour == null) continue;
+
+                String neighbourKey = getChunkKey(neighbour.chunkX, neighbour.chunkZ);
+                ChunkMesh neighbourMesh = chunkMeshes.get(neighbourKey);
+                if (neighbourMesh != null && staleSections(neighbour, neighbourMesh) != 0) {
+                    rebuildSync(neighbourKey, neighbour, true);
+                    syncBuildsCompleted++;
                 }
+            }
+        }
 
-                // Build synchronously
-                ChunkMesh oldMesh = chunkMeshes.get(chunkKey);
-                if (oldMesh != null) {
-                    oldMesh.cleanup();
+        priorityChunks.clear();
+    }
+
+    // Rebuilds (or, after an edit, patches) the outdated sections only; returns how many were updated.
+    // forEdit: the chunk is being edited - sections are built patchable so the next edits can be patched in.
+    private int rebuildSync(String chunkKey, Chunk chunk, boolean forEdit) {
+        // A queued async build is now redundant; one already running is dropped by its serial
+        buildScheduler.discard(chunkKey);
+
+        ChunkMesh mesh = chunkMeshes.computeIfAbsent(chunkKey, k -> new ChunkMesh(chunk.chunkX, chunk.chunkZ));
+        Chunk[] neighbours = getNeighbours(chunk);
+        long[][] stamps = borderStamps(neighbours);
+        int stale = clearEmptySections(chunk, mesh, staleSections(chunk, mesh), stamps);
+
+        // Build synchronously
+        long serial = buildScheduler.nextSerial();
+        int lod = mesh.getTargetLod();
+        int built = 0;
+        for (int section = 0; section < Chunk.SECTIONS; section++) {
+            if ((stale & (1 << section)) == 0) continue;
+
+            if (lod > 0) {
+                // Too far away for patching to pay off
+                mesh.buildSection(section, LodMeshBuilder.generateMeshData(chunk, textureAtlas, section, lod));
+            } else if (!forEdit) {
+                mesh.buildSync(chunk, neighbours, textureAtlas, section);
+            } else if (!tryPatch(chunk, neighbours, mesh, section)) {
+                FaceSlotMap slots = mesh.getFaceSlots(section);
+                if (slots == null) {
+                    slots = new FaceSlotMap();
                 }
+                ChunkMeshData meshData = ChunkMeshBuilder.generatePatchableMeshData(
+                        chunk, neighbours, textureAtlas, section, slots);
+                mesh.buildPatchableSection(section, meshData, slots);
+            }
+            setSectionSource(mesh, section, chunk.getSectionVersion(section), serial, stamps, lod);
+            built++;
+        }
+
+        recordFirstMesh(chunkKey);
+        return built;
+    }
 
-                System.out.println("🔨 Building sync mesh for modified chunk " + chunkKey +
-                        " (modified: " + chunk.isModified() + ")");
+    // Patches the blocks changed since the section was built straight into its vertex buffer.
+    // False when the section is not patchable or the changes can't be pinned down - rebuild it then.
+    private boolean tryPatch(Chunk chunk, Chunk[] neighbours, ChunkMesh mesh, int section) {
+        FaceSlotMap slots = mesh.getFaceSlots(section);
+        long[] stamps = mesh.getSectionBorderStamps(section);
+        if (slots == null || stamps == null || mesh.hasTranslucent(section)) {
+            return false; // Translucent faces are not slotted, a changed one can only be rebuilt
+        }
 
-                ChunkMesh newMesh = new ChunkMesh();
-                newMesh.buildSync(chunk, textureAtlas);
-                chunkMeshes.put(chunkKey, newMesh);
-                chunk.markClean(); // Only mark clean after successful build
+        long start = System.nanoTime();
 
-                syncBuildsCompleted++;
+        int count = chunk.collectChanges(mesh.getSectionVersion(section), changeScratch);
+        if (count < 0) {
+            return false;
+        }
+
+        // Changes along a neighbour's border, moved into this chunk's coordinates (x or z = -1 / SIZE)
+        for (int side = 0; side < neighbours.length; side++) {
+            Chunk neighbour = neighbours[side];
+            if (neighbour == null || neighbour.getBorderVersion(Chunk.oppositeSide(side), section) == stamps[side]) {
+                continue;
+            }
+
+            int neighbourCount = neighbour.collectChanges(stamps[side], neighbourChangeScratch);
+            if (neighbourCount < 0) {
+                return false;
+            }
+
+            for (int i = 0; i < neighbourCount; i++) {
+                int x = neighbourChangeScratch[i * 3] + Chunk.SIDE_DX[side] * Chunk.SIZE;
+                int z = neighbourChangeScratch[i * 3 + 2] + Chunk.SIDE_DZ[side] * Chunk.SIZE;
+                if (x < -1 || x > Chunk.SIZE || z < -1 || z > Chunk.SIZE) continue;
+
+                if (count == MAX_PATCH_CHANGES) {
+                    return false;
+                }
+                changeScratch[count * 3] = x;
+                changeScratch[count * 3 + 1] = neighbourChangeScratch[i * 3 + 1];
+                changeScratch[count * 3 + 2] = z;
+                count++;
             }
         }
 
-        priorityChunks.clear();
+        if (!ChunkMeshBuilder.patchSection(chunk, neighbours, textureAtlas, section,
+                changeScratch, count, slots, patchScratch)) {
+            return false;
+        }
+        mesh.patchSection(section, patchScratch);
+
+        long nanos = System.nanoTime() - start;
+        patchCount++;
+        patchNanosTotal += nanos;
+        patchNanosMax = Math.max(patchNanosMax, nanos);
+        return true;
     }
 
-    private void renderChunks(List<Chunk> visibleChunks) {
-        Matrix4f projection = camera.getProjection();
-        Matrix4f view = camera.getView();
+    // Patchable sections that should be rebuilt compact: idle for a while, or many free slots
+    private int sectionsToCompact(ChunkMesh mesh, long now) {
+        int mask = 0;
+        for (int section = 0; section < Chunk.SECTIONS; section++) {
+            FaceSlotMap slots = mesh.getFaceSlots(section);
+            if (slots == null) continue;
 
-        // Collect all textures from available meshes
-        Set<String> allTextures = new HashSet<>();
-        for (Chunk chunk : visibleChunks) {
-            String key = getChunkKey(chunk.chunkX, chunk.chunkZ);
-            ChunkMesh mesh = chunkMeshes.get(key);
-            if (mesh != null && mesh.isValid()) {
-                allTextures.addAll(mesh.getTextureTypes());
+            if (now - mesh.getLastPatchNanos(section) > COMPACT_DELAY_NANOS
+                    || slots.getFreeSlotCount() > COMPACT_MIN_FREE_SLOTS + slots.getLiveQuadCount() / 2) {
+                mask |= 1 << section;
             }
         }
+        return mask;
+    }
 
-        // Render by texture type
-        for (String textureName : allTextures) {
-            for (Chunk chunk : visibleChunks) {
-                String key = getChunkKey(chunk.chunkX, chunk.chunkZ);
-                ChunkMesh mesh = chunkMeshes.get(key);
+    private void recordFirstMesh(String chunkKey) {
+        Long firstSeen = firstVisibleNanos.remove(chunkKey);
+        if (firstSeen != null) {
+            double ms = (System.nanoTime() - firstSeen) / 1_000_000.0;
+            firstMeshSamples++;
+            firstMeshTotalMs += ms;
+            firstMeshMaxMs = Math.max(firstMeshMaxMs, ms);
+        }
+    }
+
+    // Average time from a chunk first being in view to its first mesh appearing
+    public double getAverageTimeToFirstMeshMs() {
+        return firstMeshSamples == 0 ? 0 : firstMeshTotalMs / firstMeshSamples;
+    }
+
+    public double getMaxTimeToFirstMeshMs() {
+        return firstMeshMaxMs;
+    }
+
+    // Opaque sections tested against the view frustum last frame, drawn and skipped
+    public int getSectionsInFrustum() {
+        return frustumCuller.getVisibleCount();
+    }
+
+    public int getSectionsFrustumCulled() {
+        return frustumCuller.getCulledCount();
+    }
+
+    private void renderChunks() {
+        frustumCuller.update(FrameUniforms.getProjectionView());
+        Arrays.fill(lodChunksDrawn, 0);
+
+        // One draw per non-empty section - every block texture lives in the same atlas
+        opaqueDraws.clear();
+        for (int i = 0; i < visibleChunks.size(); i++) {
+            Chunk chunk = visibleChunks.chunk(i);
+            ChunkMesh mesh = visibleChunks.mesh(i);
 
-                if (mesh == null || !mesh.isValid() || !mesh.hasTexture(textureName)) {
+            if (mesh == null) {
+                continue;
+            }
+            lodChunksDrawn[mesh.getSectionLod(0)]++;
+
+            for (int section = 0; section < Chunk.SECTIONS; section++) {
+                if (!mesh.isSectionValid(section)
+                        || !frustumCuller.testSection(chunk.chunkX, section, chunk.chunkZ)) {
                     continue;
                 }
+                mesh.addSectionDraw(section, opaqueDraws);
+            }
+        }
 
-                // Set transformation
-                Matrix4f model = new Matrix4f().translate(chunk.chunkX * 16, 0, chunk.chunkZ * 16);
-                shader.setUniformMat4f("u_Model", model);
+        drawCalls = opaqueDraws.size();
+        VertexArena.bind(GL13.GL_TEXTURE2);
+        opaqueDraws.draw();
+        VertexArena.unbind(GL13.GL_TEXTURE2);
+    }
 
-                Matrix4f mvp = new Matrix4f(projection).mul(view).mul(model);
-                shader.setUniformMat4f("u_MVP", mvp);
+    // Sections whose translucent faces were sorted for a camera position too far from the current one
+    private void requestTranslucentSorts() {
+        for (int i = 0; i < visibleChunks.size(); i++) {
+            Chunk chunk = visibleChunks.chunk(i);
+            ChunkMesh mesh = visibleChunks.mesh(i);
+            if (mesh == null) continue;
+
+            for (int section = 0; section < Chunk.SECTIONS; section++) {
+                float camX = cameraPos.x - chunk.chunkX * Chunk.SIZE;
+                float camY = cameraPos.y - section * Chunk.SECTION_SIZE;
+                float camZ = cameraPos.z - chunk.chunkZ * Chunk.SIZE;
+                if (!mesh.needsSort(section, camX, camY, camZ, SORT_THRESHOLD)) continue;
+
+                long generation = mesh.markSortRequested(section, camX, camY, camZ);
+                translucentSorter.submit(chunk.getKey(), section, generation, mesh.getTranslucentVertices(section), camX, camY, camZ);
+                sortsRequested++;
+            }
+        }
+    }
 
-                // Render
-                mesh.render(textureName);
+    private void processCompletedSorts() {
+        TranslucentSorter.Result result;
+        while ((result = translucentSorter.pollCompleted()) != null) {
+            ChunkMesh mesh = chunkMeshes.get(result.key);
+            if (mesh == null) {
+                NativeBufferPool.release(result.sortedVertices);
+                continue;
             }
+            mesh.applySortedTranslucent(result.section, result.generation, result.sortedVertices);
         }
     }
 
+    // Quads are ordered within a section by the sorter; here only chunks and sections are ordered,
+    // farthest first. Depth is tested but not written, so water behind water still shows.
+    private void renderTranslucentChunks() {
+        float cameraY = cameraPos.y;
+        translucentDraws.clear();
+
+        GL11.glEnable(GL11.GL_BLEND);
+        GL11.glBlendFunc(GL11.GL_SRC_ALPHA, GL11.GL_ONE_MINUS_SRC_ALPHA);
+        GL11.glDepthMask(false);
+        shader.setUniform1f("u_Alpha", WATER_ALPHA);
+
+        // visibleChunks is nearest first
+        for (int i = visibleChunks.size() - 1; i >= 0; i--) {
+            Chunk chunk = visibleChunks.chunk(i);
+            ChunkMesh mesh = visibleChunks.mesh(i);
+            if (mesh == null) continue;
+
+            // Sections are stacked, so the farther end of the remaining range is always next
+            int low = 0;
+            int high = Chunk.SECTIONS - 1;
+            while (low <= high) {
+                float lowDistance = Math.abs(cameraY - (low + 0.5f) * Chunk.SECTION_SIZE);
+                float highDistance = Math.abs(cameraY - (high + 0.5f) * Chunk.SECTION_SIZE);
+                int section = lowDistance >= highDistance ? low++ : high--;
+                if (!mesh.hasTranslucent(section)
+                        || !frustumCuller.intersectsSection(chunk.chunkX, section, chunk.chunkZ)) continue;
+
+                mesh.addTranslucentDraw(section, translucentDraws);
+            }
+        }
+
+        // One multi-draw, in the order added
+        translucentDrawCalls = translucentDraws.size();
+        VertexArena.bind(GL13.GL_TEXTURE2);
+        translucentDraws.draw();
+        VertexArena.unbind(GL13.GL_TEXTURE2);
+
+        GL11.glDepthMask(true);
+        GL11.glDisable(GL11.GL_BLEND);
+        shader.setUniform1f("u_Alpha", 1.0f);
+    }
+
     private void cleanupRenderState() {
         if (shadowManager != null) {
             GL13.glActiveTexture(GL13.GL_TEXTURE1);
@@ -378,13 +809,58 @@ public class ChunkRenderer {
     }
 
     private void logStatistics(int visibleChunks) {
+        // Chunks that left the world before getting a mesh no longer count
+        firstVisibleNanos.keySet().removeIf(key -> !chunkIsLoaded(key));
+
         System.out.printf(
-                "ChunkRenderer Stats: %d visible, %d cached, %d pending, %d async/sync built%n",
+                "ChunkRenderer Stats: %d visible, %d sections drawn (1 multi-draw), %d sections frustum culled, %d cached, " +
+                        "%d pending, %d async/sync built, %d unloaded, " +
+                        "%d stale dropped, first mesh %.1f ms avg / %.1f ms max, " +
+                        "%d patches (%.0f µs avg / %.0f µs max), %d compactions, " +
+                        "%d translucent draws, %d sorts requested / %d done, chunks by LOD %s, " +
+                        "vertex buffers %d allocated / %d reused, " +
+                        "vertex arena %d ranges, %d / %d vertices (%.0f%% rounding, %.0f%% free space fragmented), " +
+                        "mesh cache %d hits / %d misses (%d entries, %d KB, %d evicted), " +
+                        "render loop %s allocated per frame%n",
                 visibleChunks,
+                drawCalls,
+                frustumCuller.getCulledCount(),
                 chunkMeshes.size(),
-                pendingBuilds.size(),
-                asyncBuildsCompleted + syncBuildsCompleted
+                buildScheduler.getPendingCount(),
+                asyncBuildsCompleted + syncBuildsCompleted,
+                meshesUnloaded,
+                staleResultsDropped,
+                getAverageTimeToFirstMeshMs(),
+                getMaxTimeToFirstMeshMs(),
+                patchCount,
+                patchCount == 0 ? 0.0 : patchNanosTotal / 1000.0 / patchCount,
+                patchNanosMax / 1000.0,
+                compactionsQueued,
+                translucentDrawCalls,
+                sortsRequested,
+                translucentSorter.getSortedCount(),
+                Arrays.toString(lodChunksDrawn),
+                NativeBufferPool.getAllocations(),
+                NativeBufferPool.getReuses(),
+                VertexArena.getRangeCount(),
+                VertexArena.getUsedVertices(),
+                VertexArena.getCapacity(),
+                VertexArena.getInternalFragmentation() * 100,
+                VertexArena.getExternalFragmentation() * 100,
+                MeshCache.getHits(),
+                MeshCache.getMisses(),
+                MeshCache.getEntryCount(),
+                MeshCache.getCachedBytes() / 1024,
+                MeshCache.getEvictions(),
+                frameAllocatedBytes < 0 ? "n/a" : (frameAllocatedBytes / Math.max(1, framesSinceLog)) + " bytes"
         );
+        frameAllocatedBytes = frameAllocatedBytes < 0 ? -1 : 0;
+        framesSinceLog = 0;
+    }
+
+    private boolean chunkIsLoaded(String chunkKey) {
+        String[] parts = chunkKey.split("_");
+        return worldManager.getChunkAt(Integer.parseInt(parts[0]), Integer.parseInt(parts[1])) != null;
     }
 
     public TextureAtlas getTextureAtlas() {
@@ -395,16 +871,15 @@ public class ChunkRenderer {
     public void forceRebuildChunk(int chunkX, int chunkZ) {
         String key = getChunkKey(chunkX, chunkZ);
 
-        // Cancel any pending async build
-        Future<List<ChunkMeshData>> pending = pendingBuilds.remove(key);
-        if (pending != null && !pending.isDone()) {
-            pending.cancel(true);
-        }
+        // Drop any queued async build
+        buildScheduler.discard(key);
 
-        // Remove old mesh
-        ChunkMesh oldMesh = chunkMeshes.remove(key);
-        if (oldMesh != null) {
-            oldMesh.cleanup();
+        // Outdate the sections; the old mesh stays visible until the rebuild replaces it
+        ChunkMesh mesh = chunkMeshes.get(key);
+        if (mesh != null) {
+            for (int section = 0; section < Chunk.SECTIONS; section++) {
+                mesh.invalidateSection(section);
+            }
         }
 
         // Add to priority for sync rebuild
@@ -414,9 +889,16 @@ public class ChunkRenderer {
         }
     }
 
+    // LOD level the chunk is drawn at (with hysteresis, see LodMeshBuilder.selectLevel); -1 without a mesh
+    public int getTargetLod(Chunk chunk) {
+        ChunkMesh mesh = chunkMeshes.get(chunk.getKey());
+        return mesh != null ? mesh.getTargetLod() : -1;
+    }
+
     // === NEW: Check if chunk mesh exists ===
     public boolean hasMeshForChunk(int chunkX, int chunkZ) {
-        return chunkMeshes.containsKey(getChunkKey(chunkX, chunkZ));
+        ChunkMesh mesh = chunkMeshes.get(getChunkKey(chunkX, chunkZ));
+        return mesh != null && mesh.isValid();
     }
 
     public void cleanup() {
@@ -426,15 +908,22 @@ public class ChunkRenderer {
         }
         chunkMeshes.clear();
 
-        // Cancel pending builds
+        // Cancel pending builds and sorts
         ChunkMeshBuilder.cancelAll();
-        pendingBuilds.clear();
+        MeshCache.clear();
+        translucentSorter.shutdown();
+        firstVisibleNanos.clear();
 
         // Clear lists
         priorityChunks.clear();
         savedChunks.clear();
 
         // Cleanup resources
+        opaqueDraws.free();
+        translucentDraws.free();
+        VertexArena.cleanup();
+        QuadIndexBuffer.cleanup();
+        FrameUniforms.cleanup();
         shader.cleanup();
         textureAtlas.getTexture().cleanup();
     }
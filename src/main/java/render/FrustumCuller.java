@@ -0,0 +1,92 @@
+package render;
+
+import org.joml.Matrix4f;
+import world.Chunk;
+
+/**
+ * View-frustum test for chunk sections, on the CPU before any draw is submitted.
+ *
+ * update() extracts the six clip planes from projection * view (Gribb/Hartmann:
+ * each plane is the matrix's last row plus or minus one of the others) and
+ * normalises them. A box is outside when its corner farthest along a plane's
+ * normal is still behind that plane. That test is conservative: a box near a
+ * frustum corner can pass all six planes while missing the frustum, which only
+ * costs a draw call.
+ * Pure Java apart from reading the JOML matrix, so it runs without a GL context.
+ */
+public class FrustumCuller {
+    private static final int PLANES = 6;
+
+    // a, b, c, d per plane: a*x + b*y + c*z + d >= 0 inside. Left, right, bottom, top, near, far
+    private final float[] planes = new float[PLANES * 4];
+    private final float[] matrix = new float[16];
+
+    // Per frame, reset by update()
+    private int visibleCount = 0;
+    private int culledCount = 0;
+
+    public void update(Matrix4f projectionView) {
+        update(projectionView.get(matrix));
+    }
+
+    // m: column-major 4x4 (OpenGL / JOML order), so element (row, col) is m[col * 4 + row]
+    public void update(float[] m) {
+        for (int i = 0; i < PLANES; i++) {
+            int row = i / 2;
+            float sign = (i & 1) == 0 ? 1 : -1;
+            float a = m[3] + sign * m[row];
+            float b = m[7] + sign * m[4 + row];
+            float c = m[11] + sign * m[8 + row];
+            float d = m[15] + sign * m[12 + row];
+
+            float length = (float)Math.sqrt(a * a + b * b + c * c);
+            planes[i * 4] = a / length;
+            planes[i * 4 + 1] = b / length;
+            planes[i * 4 + 2] = c / length;
+            planes[i * 4 + 3] = d / length;
+        }
+
+        visibleCount = 0;
+        culledCount = 0;
+    }
+
+    // World-space box; does not count towards the statistics
+    public boolean intersectsBox(float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+        for (int i = 0; i < planes.length; i += 4) {
+            float a = planes[i], b = planes[i + 1], c = planes[i + 2];
+            float x = a >= 0 ? maxX : minX;
+            float y = b >= 0 ? maxY : minY;
+            float z = c >= 0 ? maxZ : minZ;
+            if (a * x + b * y + c * z + planes[i + 3] < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean intersectsSection(int chunkX, int section, int chunkZ) {
+        float x = chunkX * Chunk.SIZE;
+        float y = section * Chunk.SECTION_SIZE;
+        float z = chunkZ * Chunk.SIZE;
+        return intersectsBox(x, y, z, x + Chunk.SIZE, y + Chunk.SECTION_SIZE, z + Chunk.SIZE);
+    }
+
+    // intersectsSection, counted as visible or culled for this frame
+    public boolean testSection(int chunkX, int section, int chunkZ) {
+        boolean visible = intersectsSection(chunkX, section, chunkZ);
+        if (visible) {
+            visibleCount++;
+        } else {
+            culledCount++;
+        }
+        return visible;
+    }
+
+    public int getVisibleCount() {
+        return visibleCount;
+    }
+
+    public int getCulledCount() {
+        return culledCount;
+    }
+}
@@ -14,6 +14,8 @@ public class HighlightManager {
     private final Shader highlightShader;
     private final Camera camera;
     private Vector3f hoveredCube = null;
+    private final Matrix4f model = new Matrix4f();
+    private static final Vector3f COLOR = new Vector3f(1f, 1f, 0f);
 
     public HighlightManager(Camera camera) throws IOException {
         this.camera = camera;
@@ -32,13 +34,10 @@ public class HighlightManager {
         if (hoveredCube == null) return;
 
         highlightShader.bind();
-        Matrix4f model = new Matrix4f().translate(hoveredCube.x, hoveredCube.y, hoveredCube.z);
-        Matrix4f mvp = new Matrix4f();
-        camera.getProjection().mul(camera.getView(), mvp);
-        mvp.mul(model);
-
-        highlightShader.setUniformMat4f("u_MVP", mvp);
-        highlightShader.setUniform3f("u_Color", new Vector3f(1f, 1f, 0f));
+        // Projection * view comes from FrameUniforms
+        model.translation(hoveredCube.x, hoveredCube.y, hoveredCube.z);
+        highlightShader.setUniformMat4f("u_Model", model);
+        highlightShader.setUniform3f("u_Color", COLOR);
         highlightMesh.render();
         highlightShader.unbind();
     }
@@ -0,0 +1,307 @@
+package render;
+
+import face.Face;
+import mesh.ChunkMeshData;
+import mesh.IntArrayBuilder;
+import mesh.MeshCache;
+import mesh.NativeBufferPool;
+import texture.TextureAtlas;
+import world.Block;
+import world.Chunk;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Coarse meshes for distant chunks.
+ *
+ * Level n meshes the chunk on a grid of 2^n-block cells (2x, 4x, 8x). A cell is
+ * solid when at least half of its blocks are, and shows the block found most often
+ * on top of its columns, so grass stays grass from afar. The coarse grid is then
+ * greedy-meshed like ChunkMeshBuilder does at full detail, without AO.
+ *
+ * A coarse chunk does not look at its neighbours: faces on the chunk's outer edge
+ * are kept down to SKIRT_CELLS below the surface. They hang from the surface like
+ * a skirt and cover the cracks where the neighbour's surface, meshed at another
+ * level, does not line up.
+ * Translucent blocks are left out of LOD meshes.
+ */
+public final class LodMeshBuilder {
+    public static final int LEVELS = 4; // 0 = full detail
+
+    // A chunk goes to level n + 1 beyond LEVEL_DISTANCES[n] chunks...
+    private static final float[] LEVEL_DISTANCES = {4, 8, 12};
+    // ...but only changes level once it is this many chunks past the boundary
+    private static final float HYSTERESIS = 1.0f;
+
+    private static final int OPEN_AO = 0xFF; // All four corners unoccluded
+    // Skirt depth in cells; neighbouring levels differ by at most about a cell at the surface
+    private static final int SKIRT_CELLS = 2;
+
+    private LodMeshBuilder() {
+    }
+
+    // Cell edge in blocks
+    public static int cellSize(int level) {
+        return 1 << level;
+    }
+
+    // Level for a chunk `distance` chunks from the camera, ignoring what it has now
+    public static int levelFor(float distance) {
+        int level = 0;
+        while (level < LEVEL_DISTANCES.length && distance > LEVEL_DISTANCES[level]) {
+            level++;
+        }
+        return level;
+    }
+
+    // Like levelFor, but sticks with current until the distance is HYSTERESIS past a boundary,
+    // so walking along one does not rebuild the chunk back and forth
+    public static int selectLevel(float distance, int current) {
+        int level = levelFor(distance);
+        while (level > current && distance <= LEVEL_DISTANCES[level - 1] + HYSTERESIS) {
+            level--;
+        }
+        while (level < current && distance >= LEVEL_DISTANCES[level] - HYSTERESIS) {
+            level++;
+        }
+        return level;
+    }
+
+    // Synchronous build on the calling thread
+    public static ChunkMeshData generateMeshData(Chunk chunk, TextureAtlas atlas, int section, int level) {
+        ChunkMeshBuilder.ChunkDataSnapshot snapshot = CONTEXT.get().snapshot;
+        snapshot.copyFrom(chunk, null, atlas);
+        return generateMeshData(snapshot, section, level);
+    }
+
+    // Meshes one section at level 1..LEVELS-1; positions are relative to the section origin like at full detail
+    static ChunkMeshData generateMeshData(ChunkMeshBuilder.ChunkDataSnapshot snapshot, int section, int level) {
+        if (!snapshot.hasVisibleBlocks(section)) {
+            return ChunkMeshData.EMPTY;
+        }
+
+        LodContext context = CONTEXT.get();
+        long[] hash = context.contentHash;
+        snapshot.hashContent(section, level, hash);
+        ChunkMeshData cached = MeshCache.get(hash[0], hash[1]);
+        if (cached != null) {
+            return cached;
+        }
+
+        context.vertices.clear();
+        downsample(snapshot, level, context);
+        buildGreedy(snapshot.getAtlas(), section, level, context);
+
+        ChunkMeshData data = ChunkMeshData.EMPTY;
+        if (!context.vertices.isEmpty()) {
+            int vertexCount = context.vertices.size();
+            ByteBuffer vertexData = NativeBufferPool.acquire(vertexCount * ChunkMeshData.BYTES_PER_VERTEX);
+            context.vertices.copyTo(vertexData.asIntBuffer());
+            data = new ChunkMeshData(vertexData, vertexCount);
+        }
+        MeshCache.put(hash[0], hash[1], data);
+        return data;
+    }
+
+    // === Downsampling: the whole column, so faces between sections are culled too ===
+    private static void downsample(ChunkMeshBuilder.ChunkDataSnapshot snapshot, int level, LodContext context) {
+        int cell = cellSize(level);
+        int cellsXZ = Chunk.SIZE / cell;
+        int cellsY = Chunk.HEIGHT / cell;
+
+        for (int cx = 0; cx < cellsXZ; cx++) {
+            for (int cy = 0; cy < cellsY; cy++) {
+                for (int cz = 0; cz < cellsXZ; cz++) {
+                    context.cells[(cx * cellsY + cy) * cellsXZ + cz] =
+                            downsampleCell(snapshot, cx * cell, cy * cell, cz * cell, cell, context);
+                }
+            }
+        }
+    }
+
+    // The cell's most common top block if at least half of it is solid, otherwise null
+    private static Block downsampleCell(ChunkMeshBuilder.ChunkDataSnapshot snapshot, int x0, int y0, int z0,
+                                        int cell, LodContext context) {
+        int solid = 0;
+        int tops = 0;
+
+        for (int x = x0; x < x0 + cell; x++) {
+            for (int z = z0; z < z0 + cell; z++) {
+                Block top = null;
+                for (int y = y0 + cell - 1; y >= y0; y--) {
+                    Block block = snapshot.getBlock(x, y, z);
+                    if (isSolid(block)) {
+                        solid++;
+                        if (top == null) {
+                            top = block;
+                        }
+                    }
+                }
+                if (top != null) {
+                    context.tops[tops++] = top;
+                }
+            }
+        }
+
+        if (solid * 2 < cell * cell * cell) {
+            return null;
+        }
+        return mostCommon(context.tops, tops);
+    }
+
+    // At most 8 x 8 candidates, so counting pairwise is fine
+    private static Block mostCommon(Block[] blocks, int count) {
+        Block best = blocks[0];
+        int bestCount = 0;
+        for (int i = 0; i < count; i++) {
+            int matches = 0;
+            for (int j = 0; j < count; j++) {
+                if (blocks[j].getName().equals(blocks[i].getName())) {
+                    matches++;
+                }
+            }
+            if (matches > bestCount) {
+                bestCount = matches;
+                best = blocks[i];
+            }
+        }
+        return best;
+    }
+
+    private static boolean isSolid(Block block) {
+        return block != null && block.isVisible() && !block.isTransparent();
+    }
+
+    // === Greedy meshing of the coarse grid, one section's layers ===
+    private static int buildGreedy(TextureAtlas atlas, int section, int level, LodContext context) {
+        int cell = cellSize(level);
+        int[] size = {Chunk.SIZE / cell, Chunk.SECTION_SIZE / cell, Chunk.SIZE / cell};
+        int baseCell = section * Chunk.SECTION_SIZE / cell;
+        int[] pos = context.pos;
+        String[] mask = context.mask;
+        int totalQuads = 0;
+
+        for (Face face : ChunkMeshBuilder.FACES) {
+            int d = ChunkMeshBuilder.NORMAL_AXIS[face.ordinal()];
+            int a = ChunkMeshBuilder.U_AXIS[face.ordinal()];
+            int b = ChunkMeshBuilder.V_AXIS[face.ordinal()];
+            int sizeA = size[a];
+            int sizeB = size[b];
+
+            for (int layer = 0; layer < size[d]; layer++) {
+                // 1. Mask of visible cell faces in this layer (null = nothing to draw)
+                pos[d] = layer;
+                for (int j = 0; j < sizeB; j++) {
+                    for (int i = 0; i < sizeA; i++) {
+                        pos[a] = i;
+                        pos[b] = j;
+                        Block block = cellAt(context, level, pos[0], baseCell + pos[1], pos[2]);
+                        boolean visible = block != null
+                                && isCellFaceVisible(context, level, pos[0], baseCell + pos[1], pos[2], face);
+                        mask[i + j * sizeA] = visible ? block.getTexture(face) : null;
+                    }
+                }
+
+                // 2. Cover the mask with rectangles
+                for (int j = 0; j < sizeB; j++) {
+                    for (int i = 0; i < sizeA; ) {
+                        String texture = mask[i + j * sizeA];
+                        if (texture == null) {
+                            i++;
+                            continue;
+                        }
+
+                        int w = 1;
+                        while (i + w < sizeA && texture.equals(mask[i + w + j * sizeA])) {
+                            w++;
+                        }
+
+                        int h = 1;
+                        grow:
+                        while (j + h < sizeB) {
+                            for (int k = 0; k < w; k++) {
+                                if (!texture.equals(mask[i + k + (j + h) * sizeA])) {
+                                    break grow;
+                                }
+                            }
+                            h++;
+                        }
+
+                        pos[a] = i;
+                        pos[b] = j;
+                        int[] ext = context.ext;
+                        ext[d] = cell;
+                        ext[a] = w * cell;
+                        ext[b] = h * cell;
+
+                        ChunkMeshBuilder.addQuad(context.vertices, face,
+                                pos[0] * cell, pos[1] * cell, pos[2] * cell, ext[0], ext[1], ext[2],
+                                atlas.getUV(texture), OPEN_AO);
+                        totalQuads++;
+
+                        for (int dh = 0; dh < h; dh++) {
+                            Arrays.fill(mask, i + (j + dh) * sizeA, i + w + (j + dh) * sizeA, null);
+                        }
+                        i += w;
+                    }
+                }
+            }
+        }
+
+        return totalQuads;
+    }
+
+    private static Block cellAt(LodContext context, int level, int cx, int cy, int cz) {
+        int cellsXZ = Chunk.SIZE / cellSize(level);
+        int cellsY = Chunk.HEIGHT / cellSize(level);
+        return context.cells[(cx * cellsY + cy) * cellsXZ + cz];
+    }
+
+    // Faces on the chunk's outer edge are the skirts: kept near the surface, whatever is next door
+    private static boolean isCellFaceVisible(LodContext context, int level, int cx, int cy, int cz, Face face) {
+        int cellsXZ = Chunk.SIZE / cellSize(level);
+        int cellsY = Chunk.HEIGHT / cellSize(level);
+        int nx = cx + face.dx;
+        int ny = cy + face.dy;
+        int nz = cz + face.dz;
+
+        if (ny < 0) {
+            return false; // Bottom of the world
+        }
+        if (ny >= cellsY) {
+            return true;
+        }
+        if (nx < 0 || nz < 0 || nx >= cellsXZ || nz >= cellsXZ) {
+            return isNearSurface(context, level, cx, cy, cz);
+        }
+        return cellAt(context, level, nx, ny, nz) == null;
+    }
+
+    // Open sky or air within SKIRT_CELLS above the cell
+    private static boolean isNearSurface(LodContext context, int level, int cx, int cy, int cz) {
+        int cellsY = Chunk.HEIGHT / cellSize(level);
+        for (int above = cy + 1; above <= cy + SKIRT_CELLS; above++) {
+            if (above >= cellsY || cellAt(context, level, cx, above, cz) == null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // === Per-thread scratch state ===
+    private static class LodContext {
+        final IntArrayBuilder vertices = new IntArrayBuilder(4 * 1024);
+        // Coarse cells of the whole column at level 1 (the largest grid), indexed (x * cellsY + y) * cellsXZ + z
+        final Block[] cells = new Block[Chunk.SIZE * Chunk.HEIGHT * Chunk.SIZE / 8];
+        final Block[] tops = new Block[Chunk.SIZE * Chunk.SIZE];
+        final String[] mask = new String[Chunk.SIZE * Chunk.SIZE];
+        final int[] pos = new int[3];
+        final int[] ext = new int[3];
+        final long[] contentHash = new long[2];
+        // Used by the synchronous path
+        final ChunkMeshBuilder.ChunkDataSnapshot snapshot = new ChunkMeshBuilder.ChunkDataSnapshot();
+    }
+
+    private static final ThreadLocal<LodContext> CONTEXT = ThreadLocal.withInitial(LodContext::new);
+}
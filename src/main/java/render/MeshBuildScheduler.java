@@ -0,0 +1,276 @@
+package render;
+
+import mesh.ChunkMeshData;
+import org.joml.Vector3f;
+import texture.TextureAtlas;
+import world.Chunk;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background mesh building, nearest and most in-view chunks first.
+ *
+ * Tasks are not ordered when submitted: a worker picks the best pending task at
+ * the moment it becomes free, using the camera from the latest updateCamera().
+ * So the order follows the player as they move and turn, and tasks that have
+ * drifted out of range are dropped before anyone builds them.
+ *
+ * Nothing is interrupted. Resubmitting a chunk replaces its pending task; a build
+ * already running finishes. A task meshes only the sections in its mask, and
+ * carries their versions at snapshot time plus a submission serial; the consumer
+ * drops section results that no longer match (see ChunkRenderer).
+ */
+public class MeshBuildScheduler {
+    // How much looking away makes a chunk less urgent: behind the camera counts as up to 1 + 2 * VIEW_WEIGHT times farther
+    private static final float VIEW_WEIGHT = 0.5f;
+
+    public static class Task {
+        public final String key;
+        public final int chunkX, chunkZ;
+        public final int sectionMask;          // Bit per Chunk section to build
+        public final long[] sectionVersions;   // Chunk.getSectionVersion() at snapshot time
+        public final long serial;
+        public final long[][] borderStamps;    // Per section, per side
+        public final int lod;                  // LodMeshBuilder level, 0 = full detail
+        private final ChunkMeshBuilder.ChunkDataSnapshot snapshot;
+
+        Task(String key, Chunk chunk, int sectionMask, long serial, long[][] borderStamps, int lod,
+             ChunkMeshBuilder.ChunkDataSnapshot snapshot) {
+            this.key = key;
+            this.chunkX = chunk.chunkX;
+            this.chunkZ = chunk.chunkZ;
+            this.sectionMask = sectionMask;
+            this.sectionVersions = new long[Chunk.SECTIONS];
+            for (int section = 0; section < Chunk.SECTIONS; section++) {
+                sectionVersions[section] = chunk.getSectionVersion(section);
+            }
+            this.serial = serial;
+            this.borderStamps = borderStamps;
+            this.lod = lod;
+            this.snapshot = snapshot;
+        }
+    }
+
+    public static class Result {
+        public final Task task;
+        public final ChunkMeshData[] sectionData; // By section; null for sections not in the mask
+
+        Result(Task task, ChunkMeshData[] sectionData) {
+            this.task = task;
+            this.sectionData = sectionData;
+        }
+    }
+
+    private final Object lock = new Object();
+    private final Map<String, Task> pending = new HashMap<>();     // Waiting for a worker
+    private final Map<String, Task> scheduled = new HashMap<>();   // Pending or being built, by chunk key
+    private final ConcurrentLinkedQueue<Result> completed = new ConcurrentLinkedQueue<>();
+    private final Thread[] workers;
+    private volatile boolean running = true;
+
+    private final AtomicLong serials = new AtomicLong();
+
+    // Camera in chunk coordinates, guarded by lock
+    private float cameraChunkX, cameraChunkZ;
+    private float lookX, lookZ;
+    private final float maxDistanceSq;
+
+    // Statistics
+    private final AtomicLong builtCount = new AtomicLong();
+    private final AtomicLong outOfRangeCount = new AtomicLong();
+
+    public MeshBuildScheduler(int threads, int maxDistanceChunks) {
+        this.maxDistanceSq = (float)maxDistanceChunks * maxDistanceChunks;
+        this.workers = new Thread[threads];
+
+        for (int i = 0; i < threads; i++) {
+            Thread worker = new Thread(this::workerLoop, "mesh-builder-" + i);
+            worker.setDaemon(true);
+            worker.setPriority(Thread.MIN_PRIORITY);
+            worker.start();
+            workers[i] = worker;
+        }
+    }
+
+    // Call once per frame before submitting; workers pick tasks relative to this
+    public void updateCamera(Vector3f position, Vector3f front) {
+        float length = (float)Math.sqrt(front.x * front.x + front.z * front.z);
+        synchronized (lock) {
+            cameraChunkX = position.x / Chunk.SIZE;
+            cameraChunkZ = position.z / Chunk.SIZE;
+            lookX = length > 1e-4f ? front.x / length : 0;
+            lookZ = length > 1e-4f ? front.z / length : 0;
+        }
+    }
+
+    // Snapshots the chunk on the calling thread and queues the sections in sectionMask at the given
+    // LOD level, replacing any pending task for the same chunk
+    public Task submit(String key, Chunk chunk, int sectionMask, Chunk[] neighbours, TextureAtlas atlas,
+                       long[][] borderStamps, int lod) {
+        ChunkMeshBuilder.ChunkDataSnapshot snapshot = new ChunkMeshBuilder.ChunkDataSnapshot(chunk, neighbours, atlas);
+        Task task = new Task(key, chunk, sectionMask, nextSerial(), borderStamps, lod, snapshot);
+
+        synchronized (lock) {
+            pending.put(key, task);
+            scheduled.put(key, task);
+            lock.notify();
+        }
+        return task;
+    }
+
+    // Serial for a build done elsewhere (e.g. synchronously), so older async results lose against it
+    public long nextSerial() {
+        return serials.incrementAndGet();
+    }
+
+    // Pending or currently building
+    public boolean isScheduled(String key) {
+        synchronized (lock) {
+            return scheduled.containsKey(key);
+        }
+    }
+
+    // Drops a task that has not started; a running build still delivers (and is then filtered by the consumer)
+    public void discard(String key) {
+        synchronized (lock) {
+            if (pending.remove(key) != null) {
+                scheduled.remove(key);
+            }
+        }
+    }
+
+    public Result pollCompleted() {
+        Result result = completed.poll();
+        if (result != null) {
+            synchronized (lock) {
+                scheduled.remove(result.task.key, result.task);
+            }
+        }
+        return result;
+    }
+
+    private void workerLoop() {
+        while (running) {
+            Task task;
+            try {
+                task = takeBest();
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (task == null) {
+                continue;
+            }
+
+            ChunkMeshData[] sectionData = new ChunkMeshData[Chunk.SECTIONS];
+            for (int section = 0; section < Chunk.SECTIONS; section++) {
+                if ((task.sectionMask & (1 << section)) == 0) continue;
+
+                try {
+                    sectionData[section] = task.lod == 0
+                            ? ChunkMeshBuilder.generateMeshData(task.snapshot, section)
+                            : LodMeshBuilder.generateMeshData(task.snapshot, section, task.lod);
+                } catch (Exception e) {
+                    System.err.println("Error generating mesh data for chunk " + task.key +
+                            " section " + section + ": " + e.getMessage());
+                    e.printStackTrace();
+                    sectionData[section] = ChunkMeshData.EMPTY;
+                }
+                builtCount.incrementAndGet();
+            }
+
+            completed.add(new Result(task, sectionData));
+        }
+    }
+
+    // Blocks until there is work, then removes and returns the most urgent pending task
+    private Task takeBest() throws InterruptedException {
+        synchronized (lock) {
+            while (running && pending.isEmpty()) {
+                lock.wait();
+            }
+            if (!running) {
+                return null;
+            }
+
+            Task best = null;
+            float bestScore = Float.MAX_VALUE;
+
+            Iterator<Task> iterator = pending.values().iterator();
+            while (iterator.hasNext()) {
+                Task task = iterator.next();
+                float dx = task.chunkX + 0.5f - cameraChunkX;
+                float dz = task.chunkZ + 0.5f - cameraChunkZ;
+                float distanceSq = dx * dx + dz * dz;
+
+                // Out of range by now - the renderer resubmits if it comes back into view
+                if (distanceSq > maxDistanceSq) {
+                    iterator.remove();
+                    scheduled.remove(task.key);
+                    outOfRangeCount.incrementAndGet();
+                    continue;
+                }
+
+                float score = distanceSq * viewFactor(dx, dz, distanceSq);
+                if (score < bestScore) {
+                    bestScore = score;
+                    best = task;
+                }
+            }
+
+            if (best != null) {
+                pending.remove(best.key);
+            }
+            return best;
+        }
+    }
+
+    // 1 straight ahead, 1 + 2 * VIEW_WEIGHT straight behind
+    private float viewFactor(float dx, float dz, float distanceSq) {
+        if (distanceSq < 1e-4f) {
+            return 1.0f;
+        }
+        float dot = (dx * lookX + dz * lookZ) / (float)Math.sqrt(distanceSq);
+        return 1.0f + VIEW_WEIGHT * (1.0f - dot);
+    }
+
+    public int getPendingCount() {
+        synchronized (lock) {
+            return pending.size();
+        }
+    }
+
+    public long getBuiltCount() {
+        return builtCount.get();
+    }
+
+    public long getOutOfRangeCount() {
+        return outOfRangeCount.get();
+    }
+
+    // Forget all queued work; results of builds already running are still delivered
+    public void clear() {
+        synchronized (lock) {
+            pending.clear();
+            scheduled.clear();
+        }
+        completed.clear();
+    }
+
+    public void shutdown() {
+        running = false;
+        clear();
+        synchronized (lock) {
+            lock.notifyAll();
+        }
+        for (Thread worker : workers) {
+            try {
+                worker.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
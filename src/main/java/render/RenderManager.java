@@ -36,6 +36,9 @@ public class RenderManager {
         this.cubeMesh = new CubeMesh();
         this.shader = new Shader("shader/cube/cube.vert", "shader/cube/cube.frag");
         this.chunkRenderer = new ChunkRenderer(world, cam, shadow);
+        if (shadow != null) {
+            shadow.setChunkRenderer(chunkRenderer);
+        }
     }
 
     // ADD THIS METHOD
@@ -61,7 +64,7 @@ public class RenderManager {
 
         if (chunk.getVisibleBlockCount() > 0) {
             try {
-                mesh.ChunkMesh testMesh = new mesh.ChunkMesh();
+                mesh.ChunkMesh testMesh = new mesh.ChunkMesh(chunk.chunkX, chunk.chunkZ);
                 testMesh.buildSync(chunk, getTextureAtlas());
                 System.out.println("Test mesh built: " + testMesh.isValid() +
                         " (" + testMesh.getVertexCount() + " vertices)");
@@ -80,6 +83,11 @@ public class RenderManager {
         chunkRenderer.setPriorityChunks(priorityChunks);
     }
 
+    // Shared per-frame uniforms (camera, sun, time); before the shadow pass and render()
+    public void updateFrameUniforms() {
+        chunkRenderer.updateFrameUniforms();
+    }
+
     public void render() {
         // Use chunk rendering (optimized)
         chunkRenderer.render();
@@ -107,11 +115,21 @@ public class RenderManager {
         shader.setUniform1i("shadowMap", 1);
         shader.setUniformMat4f("u_LightSpaceMatrix", shadowManager.getLightSpaceMatrix());
 
-        // Render each block
-        for (Vector3f pos : worldManager.getRenderList()) {
-            EnumSet<Face> visibleFaces = getVisibleFaces(pos);
-            for (Face face : visibleFaces) {
-                renderFace(pos, face);
+        // Render each visible block of every loaded chunk
+        Vector3f pos = new Vector3f();
+        for (Chunk chunk : worldManager.getLoadedChunks()) {
+            for (int x = 0; x < Chunk.SIZE; x++) {
+                for (int y = 0; y < Chunk.HEIGHT; y++) {
+                    for (int z = 0; z < Chunk.SIZE; z++) {
+                        Block block = chunk.getBlock(x, y, z);
+                        if (block == null || !block.isVisible()) continue;
+
+                        pos.set(chunk.chunkX * Chunk.SIZE + x, y, chunk.chunkZ * Chunk.SIZE + z);
+                        for (Face face : getVisibleFaces(pos)) {
+                            renderFace(pos, face);
+                        }
+                    }
+                }
             }
         }
 
@@ -17,14 +17,18 @@ import java.io.IOException;
 public class ShadowManager {
     private final int SHADOW_WIDTH = 2048;  // Higher resolution = better shadows
     private final int SHADOW_HEIGHT = 2048;
+    private final float ORTHO_SIZE = 100.0f; // How much area to cover
 
     private int depthMapFBO;
     private Texture depthMapTexture;
     private Shader depthShader;
     private CubeMesh cubeMesh;  // For depth rendering
     private WorldManager worldManager;
+    private ChunkRenderer chunkRenderer; // Decides which chunks are at full detail
 
     private Matrix4f lightSpaceMatrix;
+    private final Matrix4f model = new Matrix4f();
+    private final Vector3f chunkCenter = new Vector3f();
 
     public ShadowManager(WorldManager worldManager) throws IOException {
         this.worldManager = worldManager;
@@ -72,10 +76,9 @@ public class ShadowManager {
         Vector3f up = new Vector3f(0, 1, 0);
 
         // Orthographic projection for directional light
-        float orthoSize = 100.0f; // How much area to cover
         Matrix4f lightProjection = new Matrix4f().ortho(
-                -orthoSize, orthoSize,
-                -orthoSize, orthoSize,
+                -ORTHO_SIZE, ORTHO_SIZE,
+                -ORTHO_SIZE, ORTHO_SIZE,
                 0.1f, 200f
         );
 
@@ -101,13 +104,15 @@ public class ShadowManager {
         GL11.glEnable(GL11.GL_CULL_FACE);
         GL11.glCullFace(GL11.GL_FRONT); // Front face culling to reduce shadow acne
 
-        // Use depth shader
+        // Use depth shader; the light space matrix comes from FrameUniforms
         depthShader.bind();
-        depthShader.setUniformMat4f("u_LightSpaceMatrix", lightSpaceMatrix);
 
-        // Render all blocks from light's perspective
+        // Render blocks from light's perspective. Blocks are drawn one cube at a time, so only
+        // chunks the renderer draws at full detail cast shadows, not every LOD chunk in the map's area
         for (Chunk chunk : worldManager.getLoadedChunks()) {
-            renderChunkDepth(chunk);
+            if (isFullDetail(chunk) && isInShadowMap(chunk)) {
+                renderChunkDepth(chunk);
+            }
         }
 
         // Restore settings
@@ -119,9 +124,29 @@ public class ShadowManager {
         GL11.glViewport(0, 0, 1280, 720); // Your window size
     }
 
+    // Same level (and hysteresis) as the chunk's mesh, so shadows start and stop where full detail does
+    private boolean isFullDetail(Chunk chunk) {
+        return chunkRenderer != null && chunkRenderer.getTargetLod(chunk) == 0;
+    }
+
+    public void setChunkRenderer(ChunkRenderer chunkRenderer) {
+        this.chunkRenderer = chunkRenderer;
+    }
+
+    // Chunk centre in light clip space, padded by the chunk's half diagonal
+    private boolean isInShadowMap(Chunk chunk) {
+        float halfDiagonal = (float)Math.sqrt(2 * Chunk.SIZE * Chunk.SIZE + Chunk.HEIGHT * Chunk.HEIGHT) / 2;
+        float margin = 1.0f + halfDiagonal / ORTHO_SIZE;
+        lightSpaceMatrix.transformPosition(chunkCenter.set(
+                (chunk.chunkX + 0.5f) * Chunk.SIZE,
+                Chunk.HEIGHT / 2.0f,
+                (chunk.chunkZ + 0.5f) * Chunk.SIZE));
+        return Math.abs(chunkCenter.x) <= margin && Math.abs(chunkCenter.y) <= margin;
+    }
+
     private void renderChunkDepth(Chunk chunk) {
         // Set chunk transformation
-        Matrix4f model = new Matrix4f().translate(
+        model.translation(
                 chunk.chunkX * Chunk.SIZE,
                 0,
                 chunk.chunkZ * Chunk.SIZE
@@ -150,12 +175,12 @@ public class ShadowManager {
         // Simplified: render each block
         // In practice, you'd use chunk meshes
         for (int x = 0; x < Chunk.SIZE; x++) {
-            for (int y = 0; y < Chunk.SIZE; y++) {
+            for (int y = 0; y < Chunk.HEIGHT; y++) {
                 for (int z = 0; z < Chunk.SIZE; z++) {
                     Block block = chunk.getBlock(x, y, z);
-                    if (block != null) {
-                        Matrix4f blockModel = new Matrix4f().translate(x, y, z);
-                        depthShader.setUniformMat4f("u_Model", blockModel);
+                    if (block != null && block.isVisible()) {
+                        model.translation(x, y, z);
+                        depthShader.setUniformMat4f("u_Model", model);
                         cubeMesh.renderAll(); // Render all faces
                     }
                 }
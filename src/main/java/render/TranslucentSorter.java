@@ -0,0 +1,169 @@
+package render;
+
+import mesh.ChunkMeshData;
+import mesh.NativeBufferPool;
+import mesh.QuadIndices;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Back-to-front ordering of translucent quads, off the render thread.
+ *
+ * Blending needs the farthest water drawn first. The renderer asks for a sort only
+ * when the camera has moved far enough since the last one (see ChunkRenderer), so
+ * one worker is plenty. Each request carries the section's translucent vertices and
+ * the camera in section-local coordinates; the result is a pooled direct buffer in
+ * the same packed layout, which ChunkMesh.applySortedTranslucent uploads in place.
+ * The generation lets the mesh ignore sorts of a buffer it has since replaced.
+ */
+public class TranslucentSorter {
+    public static class Result {
+        public final String key;
+        public final int section;
+        public final long generation;
+        public final ByteBuffer sortedVertices; // Pooled; released by whoever consumes it. Null if the sort failed
+
+        Result(String key, int section, long generation, ByteBuffer sortedVertices) {
+            this.key = key;
+            this.section = section;
+            this.generation = generation;
+            this.sortedVertices = sortedVertices;
+        }
+    }
+
+    private static class Request {
+        final String key;
+        final int section;
+        final long generation;
+        final int[] vertices;
+        final float camX, camY, camZ;
+
+        Request(String key, int section, long generation, int[] vertices, float camX, float camY, float camZ) {
+            this.key = key;
+            this.section = section;
+            this.generation = generation;
+            this.vertices = vertices;
+            this.camX = camX;
+            this.camY = camY;
+            this.camZ = camZ;
+        }
+    }
+
+    private final LinkedBlockingQueue<Request> requests = new LinkedBlockingQueue<>();
+    private final ConcurrentLinkedQueue<Result> completed = new ConcurrentLinkedQueue<>();
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    // Worker thread only: (distance bits << 32 | quad) per quad
+    private long[] sortKeys = new long[1024];
+
+    // Statistics
+    private final AtomicLong sortedCount = new AtomicLong();
+
+    public TranslucentSorter() {
+        worker = new Thread(this::workerLoop, "translucent-sorter");
+        worker.setDaemon(true);
+        worker.setPriority(Thread.MIN_PRIORITY);
+        worker.start();
+    }
+
+    // vertices must not change afterwards (ChunkMesh keeps each upload's array as is)
+    public void submit(String key, int section, long generation, int[] vertices, float camX, float camY, float camZ) {
+        requests.add(new Request(key, section, generation, vertices, camX, camY, camZ));
+    }
+
+    // Drops queued requests for a chunk; a sort already running still delivers (the consumer releases it)
+    public void cancel(String key) {
+        requests.removeIf(request -> request.key.equals(key));
+    }
+
+    public Result pollCompleted() {
+        return completed.poll();
+    }
+
+    public int getPendingCount() {
+        return requests.size();
+    }
+
+    public long getSortedCount() {
+        return sortedCount.get();
+    }
+
+    private void workerLoop() {
+        while (running) {
+            Request request;
+            try {
+                request = requests.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+
+            try {
+                completed.add(new Result(request.key, request.section, request.generation, sort(request)));
+                sortedCount.incrementAndGet();
+            } catch (Exception e) {
+                System.err.println("❌ Error sorting translucent faces of chunk " + request.key +
+                        " section " + request.section + ": " + e.getMessage());
+                // Still report back, so the section stops waiting for this sort
+                completed.add(new Result(request.key, request.section, request.generation, null));
+            }
+        }
+    }
+
+    private ByteBuffer sort(Request request) {
+        int[] vertices = request.vertices;
+        int quads = vertices.length / QuadIndices.VERTICES_PER_QUAD;
+        if (sortKeys.length < quads) {
+            sortKeys = new long[Math.max(quads, sortKeys.length * 2)];
+        }
+
+        // Squared distance from the camera to each quad's centre (4x, positions are summed, not averaged).
+        // Non-negative floats order like their bit patterns, so one long sort does it.
+        for (int quad = 0; quad < quads; quad++) {
+            int sumX = 0, sumY = 0, sumZ = 0;
+            for (int corner = 0; corner < QuadIndices.VERTICES_PER_QUAD; corner++) {
+                int vertex = vertices[quad * QuadIndices.VERTICES_PER_QUAD + corner];
+                sumX += ChunkMeshData.unpackX(vertex);
+                sumY += ChunkMeshData.unpackY(vertex);
+                sumZ += ChunkMeshData.unpackZ(vertex);
+            }
+            float dx = sumX - request.camX * QuadIndices.VERTICES_PER_QUAD;
+            float dy = sumY - request.camY * QuadIndices.VERTICES_PER_QUAD;
+            float dz = sumZ - request.camZ * QuadIndices.VERTICES_PER_QUAD;
+            long distance = Float.floatToIntBits(dx * dx + dy * dy + dz * dz);
+            sortKeys[quad] = distance << 32 | quad;
+        }
+        Arrays.sort(sortKeys, 0, quads);
+
+        // Farthest first
+        ByteBuffer sorted = NativeBufferPool.acquire(vertices.length * ChunkMeshData.BYTES_PER_VERTEX);
+        IntBuffer out = sorted.asIntBuffer();
+        for (int i = quads - 1; i >= 0; i--) {
+            int quad = (int)sortKeys[i];
+            out.put(vertices, quad * QuadIndices.VERTICES_PER_QUAD, QuadIndices.VERTICES_PER_QUAD);
+        }
+        return sorted;
+    }
+
+    // Drops queued requests and stops the worker; pending results are released
+    public void shutdown() {
+        running = false;
+        requests.clear();
+        worker.interrupt();
+        try {
+            worker.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        Result result;
+        while ((result = completed.poll()) != null) {
+            NativeBufferPool.release(result.sortedVertices);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package render;
+
+import mesh.ChunkMesh;
+import world.Chunk;
+
+import java.util.Arrays;
+
+/**
+ * This frame's chunks in render range, nearest first, with their meshes looked up once.
+ *
+ * Parallel arrays reused from frame to frame (they only grow), so collecting and
+ * walking the list allocates nothing. Passes walk it by index: nearest first for
+ * builds and opaque geometry, farthest first for water.
+ */
+public class VisibleChunkList {
+    private Chunk[] chunks;
+    private ChunkMesh[] meshes;  // null until the chunk's first build is queued
+    private float[] distances;   // In chunks, camera to chunk centre (what LOD levels go by)
+    private int size = 0;
+
+    public VisibleChunkList(int initialCapacity) {
+        chunks = new Chunk[initialCapacity];
+        meshes = new ChunkMesh[initialCapacity];
+        distances = new float[initialCapacity];
+    }
+
+    // Drops last frame's references so unloaded chunks can be collected
+    public void clear() {
+        Arrays.fill(chunks, 0, size, null);
+        Arrays.fill(meshes, 0, size, null);
+        size = 0;
+    }
+
+    public void add(Chunk chunk, ChunkMesh mesh, float distance) {
+        if (size == chunks.length) {
+            int capacity = size * 2;
+            chunks = Arrays.copyOf(chunks, capacity);
+            meshes = Arrays.copyOf(meshes, capacity);
+            distances = Arrays.copyOf(distances, capacity);
+        }
+        chunks[size] = chunk;
+        meshes[size] = mesh;
+        distances[size] = distance;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public Chunk chunk(int i) {
+        return chunks[i];
+    }
+
+    public ChunkMesh mesh(int i) {
+        return meshes[i];
+    }
+
+    public void setMesh(int i, ChunkMesh mesh) {
+        meshes[i] = mesh;
+    }
+
+    public float distance(int i) {
+        return distances[i];
+    }
+}
@@ -0,0 +1,120 @@
+package shader;
+
+import org.joml.Matrix4f;
+import org.joml.Vector3f;
+import org.lwjgl.system.MemoryUtil;
+
+import java.nio.ByteBuffer;
+
+import static org.lwjgl.opengl.GL15.*;
+import static org.lwjgl.opengl.GL30.glBindBufferBase;
+import static org.lwjgl.opengl.GL31.GL_UNIFORM_BUFFER;
+
+/**
+ * Frame-constant uniforms in one std140 uniform buffer, shared by every program.
+ *
+ * The setters only fill a staging buffer; upload() sends it once per frame, before
+ * the shadow pass, and the cube, depth and highlight shaders all read the same copy
+ * through the FrameData block bound to BINDING (Shader binds it at link time).
+ * The block is declared in each of those shaders and must match the offsets below:
+ *
+ *   mat4 u_Projection        0     vec3 u_LightDir    256   float u_Time       268
+ *   mat4 u_View             64     vec3 u_LightColor  272   int u_UseFog       284
+ *   mat4 u_ProjectionView  128     vec3 u_Ambient     288   int u_UseShadows   300
+ *   mat4 u_LightSpaceMatrix 192    vec3 u_ViewPos     304   int u_UsePBR       316
+ *
+ * Static like QuadIndexBuffer; created on first upload (MAIN THREAD - OpenGL operations).
+ */
+public final class FrameUniforms {
+    public static final String BLOCK_NAME = "FrameData";
+    public static final int BINDING = 0;
+
+    private static final int PROJECTION = 0;
+    private static final int VIEW = 64;
+    private static final int PROJECTION_VIEW = 128;
+    private static final int LIGHT_SPACE = 192;
+    private static final int LIGHT_DIR = 256;
+    private static final int TIME = 268;
+    private static final int LIGHT_COLOR = 272;
+    private static final int USE_FOG = 284;
+    private static final int AMBIENT = 288;
+    private static final int USE_SHADOWS = 300;
+    private static final int VIEW_POS = 304;
+    private static final int USE_PBR = 316;
+    private static final int SIZE = 320;
+
+    private static final ByteBuffer staging = MemoryUtil.memAlloc(SIZE);
+    private static final Matrix4f projection = new Matrix4f();
+    private static final Matrix4f view = new Matrix4f();
+    private static final Matrix4f projectionView = new Matrix4f();
+    private static int ubo = 0;
+
+    private FrameUniforms() {
+    }
+
+    public static void setCamera(Matrix4f cameraProjection, Matrix4f cameraView, Vector3f viewPos) {
+        projection.set(cameraProjection);
+        view.set(cameraView);
+        projection.mul(view, projectionView);
+        projection.get(PROJECTION, staging);
+        view.get(VIEW, staging);
+        projectionView.get(PROJECTION_VIEW, staging);
+        putVec3(VIEW_POS, viewPos);
+    }
+
+    public static void setLightSpace(Matrix4f lightSpace) {
+        lightSpace.get(LIGHT_SPACE, staging);
+    }
+
+    public static void setLighting(Vector3f lightDir, Vector3f lightColor, Vector3f ambient) {
+        putVec3(LIGHT_DIR, lightDir);
+        putVec3(LIGHT_COLOR, lightColor);
+        putVec3(AMBIENT, ambient);
+    }
+
+    public static void setTime(float seconds) {
+        staging.putFloat(TIME, seconds);
+    }
+
+    public static void setFlags(boolean fog, boolean pbr, boolean shadows) {
+        staging.putInt(USE_FOG, fog ? 1 : 0);
+        staging.putInt(USE_PBR, pbr ? 1 : 0);
+        staging.putInt(USE_SHADOWS, shadows ? 1 : 0);
+    }
+
+    // Sends this frame's values and (re)binds the buffer to BINDING
+    public static void upload() {
+        if (ubo == 0) {
+            ubo = glGenBuffers();
+            if (ubo == 0) {
+                throw new RuntimeException("Failed to generate OpenGL objects");
+            }
+            glBindBuffer(GL_UNIFORM_BUFFER, ubo);
+            glBufferData(GL_UNIFORM_BUFFER, SIZE, GL_DYNAMIC_DRAW);
+        } else {
+            glBindBuffer(GL_UNIFORM_BUFFER, ubo);
+        }
+        staging.clear();
+        glBufferSubData(GL_UNIFORM_BUFFER, 0, staging);
+        glBindBuffer(GL_UNIFORM_BUFFER, 0);
+        glBindBufferBase(GL_UNIFORM_BUFFER, BINDING, ubo);
+    }
+
+    // Projection * view as of the last setCamera, for CPU-side culling
+    public static Matrix4f getProjectionView() {
+        return projectionView;
+    }
+
+    private static void putVec3(int offset, Vector3f v) {
+        staging.putFloat(offset, v.x);
+        staging.putFloat(offset + 4, v.y);
+        staging.putFloat(offset + 8, v.z);
+    }
+
+    public static void cleanup() {
+        if (ubo != 0) {
+            glDeleteBuffers(ubo);
+            ubo = 0;
+        }
+    }
+}
@@ -2,20 +2,28 @@ package shader;
 
 import org.joml.Matrix4f;
 import org.joml.Vector3f;
-import org.lwjgl.opengl.GL20;
 import org.lwjgl.system.MemoryStack;
 
 import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
 
 import static org.lwjgl.opengl.GL20.*;
 import static org.lwjgl.opengl.GL30.glDeleteProgram;
+import static org.lwjgl.opengl.GL31.GL_INVALID_INDEX;
+import static org.lwjgl.opengl.GL31.glGetUniformBlockIndex;
+import static org.lwjgl.opengl.GL31.glUniformBlockBinding;
 
 public class Shader {
 
     private final int programId;
 
+    // Active uniform locations, read once after linking; names not in here are not used by the program
+    private final Map<String, Integer> uniformLocations = new HashMap<>();
+
     public Shader(String vertexResourcePath, String fragmentResourcePath) throws IOException {
         // Load shader sources from resources
         String vertexSource = loadSource(vertexResourcePath);
@@ -41,6 +49,41 @@ public class Shader {
         glDetachShader(programId, fragmentShader);
         glDeleteShader(vertexShader);
         glDeleteShader(fragmentShader);
+
+        cacheUniformLocations();
+        bindUniformBlock(FrameUniforms.BLOCK_NAME, FrameUniforms.BINDING);
+    }
+
+    private void cacheUniformLocations() {
+        int count = glGetProgrami(programId, GL_ACTIVE_UNIFORMS);
+        try (MemoryStack stack = MemoryStack.stackPush()) {
+            IntBuffer size = stack.mallocInt(1);
+            IntBuffer type = stack.mallocInt(1);
+            for (int i = 0; i < count; i++) {
+                String name = glGetActiveUniform(programId, i, size, type);
+                // Arrays are reported as "name[0]"
+                if (name.endsWith("[0]")) {
+                    name = name.substring(0, name.length() - 3);
+                }
+                // Uniform block members have no location
+                int location = glGetUniformLocation(programId, name);
+                if (location != -1) {
+                    uniformLocations.put(name, location);
+                }
+            }
+        }
+    }
+
+    // Points a uniform block at a buffer binding point; does nothing if the program has no such block
+    public void bindUniformBlock(String blockName, int bindingPoint) {
+        int index = glGetUniformBlockIndex(programId, blockName);
+        if (index != GL_INVALID_INDEX) {
+            glUniformBlockBinding(programId, index, bindingPoint);
+        }
+    }
+
+    private int getUniformLocation(String name) {
+        return uniformLocations.getOrDefault(name, -1);
     }
 
     private String loadSource(String resourcePath) throws IOException {
@@ -80,26 +123,30 @@ public class Shader {
         try (MemoryStack stack = MemoryStack.stackPush()) {
             FloatBuffer fb = stack.mallocFloat(16);
             matrix.get(fb);
-            int location = glGetUniformLocation(programId, name);
-            glUniformMatrix4fv(location, false, fb);
+            int location = getUniformLocation(name);
+            if (location != -1) {
+                glUniformMatrix4fv(location, false, fb);
+            }
         }
     }
 
     // Add this for vec3
     public void setUniform3f(String name, Vector3f vec) {
-        int location = GL20.glGetUniformLocation(programId, name);
-        GL20.glUniform3f(location, vec.x, vec.y, vec.z);
+        int location = getUniformLocation(name);
+        if (location != -1) {
+            glUniform3f(location, vec.x, vec.y, vec.z);
+        }
     }
 
     public void setUniform1f(String name, float value) {
-        int location = glGetUniformLocation(programId, name);
+        int location = getUniformLocation(name);
         if (location != -1) {
             glUniform1f(location, value);
         }
     }
 
     public void setUniform1i(String name, int value) {
-        int location = glGetUniformLocation(programId, name);
+        int location = getUniformLocation(name);
         if (location != -1) {
             glUniform1i(location, value);
         }
@@ -24,6 +24,17 @@ public class TextureAtlas {
 
     }
 
+    // UV layout only, no GL texture - for offline tools and benchmarks that run without a context
+    private TextureAtlas(Void layoutOnly) {
+        this.textureMap = new HashMap<>();
+        registerSimpleTextures();
+        this.texture = null;
+    }
+
+    public static TextureAtlas layoutOnly() {
+        return new TextureAtlas((Void)null);
+    }
+
     private void setupTextureFiltering() {
         texture.bind();
 
@@ -45,6 +56,7 @@ public class TextureAtlas {
         registerSimple("grass_side", 1, 0);
         registerSimple("dirt", 2, 0);
         registerSimple("stone", 3, 0);
+        registerSimple("water", 4, 0);
         registerSimple("sand", 5, 0);
 
         // Row 1
@@ -58,7 +70,7 @@ public class TextureAtlas {
         float u2 = ((gridX + 1) * tileSize) / (float)atlasSize;
         float v2 = ((gridY + 1) * tileSize) / (float)atlasSize;
 
-        textureMap.put(name, new UVCoords(u1, v1, u2, v2));
+        textureMap.put(name, new UVCoords(u1, v1, u2, v2, gridX + gridY * getColumns()));
     }
 
     public UVCoords getUV(String textureName) {
@@ -72,18 +84,30 @@ public class TextureAtlas {
         return coords;
     }
 
+    // Size of one tile in UV units (greedy quads repeat a tile across several blocks)
+    public float getTileUVSize() {
+        return tileSize / (float)atlasSize;
+    }
+
+    // Tiles per atlas row (tile index = column + row * columns)
+    public int getColumns() {
+        return atlasSize / tileSize;
+    }
+
     public Texture getTexture() {
         return texture;
     }
 
     public static class UVCoords {
         public final float u1, v1, u2, v2;
+        public final int tileIndex;
 
-        public UVCoords(float u1, float v1, float u2, float v2) {
+        public UVCoords(float u1, float v1, float u2, float v2, int tileIndex) {
             this.u1 = u1;
             this.v1 = v1;
             this.u2 = u2;
             this.v2 = v2;
+            this.tileIndex = tileIndex;
         }
 
         @Override
@@ -244,7 +244,7 @@ public class TextureAtlasGenerator {
             float u2 = u1 + TILE_SIZE / (float)ATLAS_SIZE - 2 * pixelOffset;
             float v2 = v1 + TILE_SIZE / (float)ATLAS_SIZE - 2 * pixelOffset;
 
-            uvMap.put(name, new TextureAtlas.UVCoords(u1, v1, u2, v2));
+            uvMap.put(name, new TextureAtlas.UVCoords(u1, v1, u2, v2, gridX + gridY * tilesPerRow));
             tileCount++;
         }
 
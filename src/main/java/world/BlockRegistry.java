@@ -0,0 +1,46 @@
+package world;
+
+import world.blocks.*;
+
+/**
+ * Maps block types to compact numeric IDs for persistence.
+ * IDs are written to disk, so only ever append new entries - never renumber.
+ */
+public final class BlockRegistry {
+    public static final byte AIR = 0;
+    public static final byte GRASS = 1;
+    public static final byte DIRT = 2;
+    public static final byte STONE = 3;
+    public static final byte SAND = 4;
+    public static final byte WATER = 5;
+    public static final byte DEBUG = 6;
+
+    // Blocks carry no per-position state, so every chunk shares one instance per type
+    private static final Block[] SHARED = {
+            null, new GrassBlock(), new DirtBlock(), new StoneBlock(),
+            new SandBlock(), new WaterBlock(), new DebugBlock()
+    };
+
+    private BlockRegistry() {
+    }
+
+    public static byte idOf(Block block) {
+        if (block == null || !block.isVisible()) {
+            return AIR;
+        }
+
+        return switch (block.getName()) {
+            case "grass" -> GRASS;
+            case "dirt" -> DIRT;
+            case "stone" -> STONE;
+            case "sand" -> SAND;
+            case "water" -> WATER;
+            default -> DEBUG;
+        };
+    }
+
+    // Returns null for air (chunks store air as null); the instance is shared, see SHARED
+    public static Block create(byte id) {
+        return id >= 0 && id < SHARED.length ? SHARED[id] : SHARED[DEBUG];
+    }
+}
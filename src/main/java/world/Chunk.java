@@ -1,45 +1,188 @@
 package world;
 
 import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class Chunk {
     public static final int SIZE = 16;
+
+    // === Vertical sections: the column is meshed and versioned in SIZE-tall cubes ===
+    public static final int HEIGHT = 32;
+    public static final int SECTION_SIZE = SIZE;
+    public static final int SECTIONS = HEIGHT / SECTION_SIZE;
+
+    // === Horizontal sides, shared with the neighbouring chunks ===
+    public static final int NEG_X = 0, POS_X = 1, NEG_Z = 2, POS_Z = 3;
+    public static final int[] SIDE_DX = {-1, 1, 0, 0};
+    public static final int[] SIDE_DZ = {0, 0, -1, 1};
+
+    // Versions come from one global counter, so a reloaded chunk never looks unchanged
+    private static final AtomicLong STAMPS = new AtomicLong();
+
+    // Recent block changes, so a mesh can be patched instead of rebuilt (see collectChanges)
+    private static final int CHANGE_LOG_SIZE = 64;
+
     public final int chunkX, chunkY, chunkZ;
+    private final String key; // "x_z", how the renderer and edit tracking refer to a chunk
     private final Block[][][] blocks;
     private boolean modified = false;
     private int visibleBlockCount = 0; // Track how many blocks are visible
+    private final int[] sectionVisibleCounts = new int[SECTIONS];
+    private final long[][] borderVersions = new long[4][SECTIONS]; // Bumped when a block on that side of a section changes
+    private final long[] sectionVersions = new long[SECTIONS];      // Bumped when a section (or the layer next to it) changes
+
+    // Occupancy per (x, z) column, bit y set for a visible opaque / transparent block, for bitmask meshing.
+    // A long holds up to 64 blocks of height.
+    private final long[] opaqueColumns = new long[SIZE * SIZE];
+    private final long[] translucentColumns = new long[SIZE * SIZE];
+
+    // Ring of the last CHANGE_LOG_SIZE changes: stamp and x, y, z; anything at or before logFloor may be missing
+    private final long[] changeStamps = new long[CHANGE_LOG_SIZE];
+    private final int[] changePositions = new int[CHANGE_LOG_SIZE * 3];
+    private int changeCount = 0;
+    private long logFloor;
 
     public Chunk(int x, int y, int z) {
         this.chunkX = x;
         this.chunkY = y;
         this.chunkZ = z;
-        this.blocks = new Block[SIZE][SIZE][SIZE];
+        this.key = x + "_" + z;
+        this.blocks = new Block[SIZE][HEIGHT][SIZE];
+        touchAll();
+    }
+
+    public String getKey() {
+        return key;
     }
 
     public Block getBlock(int x, int y, int z) {
-        if (x < 0 || y < 0 || z < 0 || x >= SIZE || y >= SIZE || z >= SIZE) {
+        if (x < 0 || y < 0 || z < 0 || x >= SIZE || y >= HEIGHT || z >= SIZE) {
             return null;
         }
         return blocks[x][y][z];
     }
 
     public void setBlock(int x, int y, int z, Block block) {
-        if (x < 0 || y < 0 || z < 0 || x >= SIZE || y >= SIZE || z >= SIZE) {
+        if (x < 0 || y < 0 || z < 0 || x >= SIZE || y >= HEIGHT || z >= SIZE) {
             return;
         }
 
+        int section = y / SECTION_SIZE;
         Block oldBlock = blocks[x][y][z];
         if (oldBlock != null && oldBlock.isVisible()) {
             visibleBlockCount--;
+            sectionVisibleCounts[section]--;
         }
 
         blocks[x][y][z] = block;
 
+        int column = x * SIZE + z;
+        opaqueColumns[column] &= ~(1L << y);
+        translucentColumns[column] &= ~(1L << y);
         if (block != null && block.isVisible()) {
             visibleBlockCount++;
+            sectionVisibleCounts[section]++;
+            if (block.isTransparent()) {
+                translucentColumns[column] |= 1L << y;
+            } else {
+                opaqueColumns[column] |= 1L << y;
+            }
         }
 
         modified = true;
+
+        // One stamp per change, shared by every version it bumps and its change log entry
+        long stamp = STAMPS.incrementAndGet();
+        touchSections(y, stamp);
+        touchBorders(x, z, section, stamp);
+        logChange(x, y, z, stamp);
+    }
+
+    // The section containing y, plus the one above or below when y is on its edge (faces there cull against it)
+    private void touchSections(int y, long stamp) {
+        int section = y / SECTION_SIZE;
+        sectionVersions[section] = stamp;
+
+        int inSection = y % SECTION_SIZE;
+        if (inSection == 0 && section > 0) {
+            sectionVersions[section - 1] = stamp;
+        } else if (inSection == SECTION_SIZE - 1 && section < SECTIONS - 1) {
+            sectionVersions[section + 1] = stamp;
+        }
+    }
+
+    private void touchBorders(int x, int z, int section, long stamp) {
+        if (x == 0) borderVersions[NEG_X][section] = stamp;
+        if (x == SIZE - 1) borderVersions[POS_X][section] = stamp;
+        if (z == 0) borderVersions[NEG_Z][section] = stamp;
+        if (z == SIZE - 1) borderVersions[POS_Z][section] = stamp;
+    }
+
+    // Everything changed at once - also too much for the change log
+    private void touchAll() {
+        long stamp = STAMPS.incrementAndGet();
+        for (int section = 0; section < SECTIONS; section++) {
+            sectionVersions[section] = stamp;
+            for (int side = 0; side < borderVersions.length; side++) {
+                borderVersions[side][section] = stamp;
+            }
+        }
+        logFloor = stamp;
+        changeCount = 0;
+    }
+
+    private void logChange(int x, int y, int z, long stamp) {
+        int slot = changeCount % CHANGE_LOG_SIZE;
+        if (changeCount >= CHANGE_LOG_SIZE) {
+            logFloor = changeStamps[slot]; // Overwriting the oldest entry
+        }
+        changeStamps[slot] = stamp;
+        changePositions[slot * 3] = x;
+        changePositions[slot * 3 + 1] = y;
+        changePositions[slot * 3 + 2] = z;
+        changeCount++;
+    }
+
+    /**
+     * Positions of the blocks changed after the given stamp (a section or border version
+     * previously read from this chunk), written to out as x, y, z triples.
+     * Returns how many, or -1 when the log no longer reaches back that far or out is too small.
+     */
+    public int collectChanges(long sinceStamp, int[] out) {
+        if (sinceStamp < logFloor) {
+            return -1;
+        }
+
+        int count = 0;
+        int first = Math.max(0, changeCount - CHANGE_LOG_SIZE);
+        for (int i = first; i < changeCount; i++) {
+            int slot = i % CHANGE_LOG_SIZE;
+            if (changeStamps[slot] <= sinceStamp) continue;
+
+            if ((count + 1) * 3 > out.length) {
+                return -1;
+            }
+            out[count * 3] = changePositions[slot * 3];
+            out[count * 3 + 1] = changePositions[slot * 3 + 1];
+            out[count * 3 + 2] = changePositions[slot * 3 + 2];
+            count++;
+        }
+        return count;
+    }
+
+    // Changes whenever the section's content (or the adjacent layer of the sections above/below) changes;
+    // used to recognise outdated section meshes
+    public long getSectionVersion(int section) {
+        return sectionVersions[section];
+    }
+
+    // Changes whenever a block in the outermost slice on that side of the section changes
+    public long getBorderVersion(int side, int section) {
+        return borderVersions[side][section];
+    }
+
+    public static int oppositeSide(int side) {
+        return side ^ 1;
     }
 
     public boolean isModified() {
@@ -54,17 +197,35 @@ public class Chunk {
         return visibleBlockCount > 0;
     }
 
+    public boolean hasVisibleBlocks(int section) {
+        return sectionVisibleCounts[section] > 0;
+    }
+
     public int getVisibleBlockCount() {
         return visibleBlockCount;
     }
 
+    // Bit y set where the column holds a visible opaque block
+    public long getOpaqueColumn(int x, int z) {
+        return opaqueColumns[x * SIZE + z];
+    }
+
+    // Bit y set where the column holds a visible transparent block
+    public long getTranslucentColumn(int x, int z) {
+        return translucentColumns[x * SIZE + z];
+    }
+
     public void cleanup() {
         // Clear blocks array
         for (int x = 0; x < SIZE; x++) {
-            for (int y = 0; y < SIZE; y++) {
+            for (int y = 0; y < HEIGHT; y++) {
                 Arrays.fill(blocks[x][y], null);
             }
         }
         visibleBlockCount = 0;
+        Arrays.fill(sectionVisibleCounts, 0);
+        Arrays.fill(opaqueColumns, 0);
+        Arrays.fill(translucentColumns, 0);
+        touchAll();
     }
 }
\ No newline at end of file
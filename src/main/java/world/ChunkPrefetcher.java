@@ -0,0 +1,146 @@
+package world;
+
+import org.joml.Vector2i;
+import org.joml.Vector3f;
+
+import java.util.*;
+
+/**
+ * Predicts which chunks the player is about to need from their velocity and look
+ * direction, so they can be loaded before they enter the render distance.
+ *
+ * The prediction point is the player position pushed ahead by LOOKAHEAD_SECONDS of
+ * movement plus a small bias towards where the camera looks. Every chunk within the
+ * render distance of that point (but not of the player) is a prefetch candidate,
+ * capped to PREFETCH_MARGIN chunks beyond the render distance.
+ */
+public class ChunkPrefetcher {
+    private static final float LOOKAHEAD_SECONDS = 2.0f;
+    private static final float LOOK_BIAS_BLOCKS = 8.0f;
+    private static final int PREFETCH_MARGIN = 2;          // chunks beyond render distance
+    private static final int MAX_PREFETCH_PER_UPDATE = 1;  // loads per generateChunksAround call
+    private static final int MAX_PREFETCHED_CHUNKS = 48;   // resident prefetched chunks
+
+    private final int chunkSize;
+    private final int renderDistance;
+
+    // Candidates from the last update (nearest first) - also what keeps prefetched chunks resident
+    private final List<Vector2i> candidates = new ArrayList<>();
+    private final Set<Vector2i> candidateSet = new HashSet<>();
+
+    // Metrics: chunks entering the render distance that were already loaded
+    private final Set<Vector2i> previouslyNeeded = new HashSet<>();
+    private long neededHits = 0;
+    private long neededMisses = 0;
+
+    public ChunkPrefetcher(int chunkSize, int renderDistance) {
+        this.chunkSize = chunkSize;
+        this.renderDistance = renderDistance;
+    }
+
+    public void update(Vector3f playerPos, Vector3f velocity, Vector3f lookDir) {
+        candidates.clear();
+        candidateSet.clear();
+
+        // Predicted horizontal offset, clamped so we never reach past the prefetch ring
+        float offsetX = velocity.x * LOOKAHEAD_SECONDS + lookDir.x * LOOK_BIAS_BLOCKS;
+        float offsetZ = velocity.z * LOOKAHEAD_SECONDS + lookDir.z * LOOK_BIAS_BLOCKS;
+        float maxOffset = PREFETCH_MARGIN * chunkSize;
+        float length = (float)Math.sqrt(offsetX * offsetX + offsetZ * offsetZ);
+        if (length > maxOffset) {
+            offsetX *= maxOffset / length;
+            offsetZ *= maxOffset / length;
+        }
+
+        int playerChunkX = (int)Math.floor(playerPos.x / chunkSize);
+        int playerChunkZ = (int)Math.floor(playerPos.z / chunkSize);
+        int predictedChunkX = (int)Math.floor((playerPos.x + offsetX) / chunkSize);
+        int predictedChunkZ = (int)Math.floor((playerPos.z + offsetZ) / chunkSize);
+
+        if (predictedChunkX == playerChunkX && predictedChunkZ == playerChunkZ) {
+            return; // Standing still (or nearly) - nothing new is coming into range
+        }
+
+        int renderSq = renderDistance * renderDistance;
+        int outerSq = (renderDistance + PREFETCH_MARGIN) * (renderDistance + PREFETCH_MARGIN);
+
+        for (int dx = -renderDistance; dx <= renderDistance; dx++) {
+            for (int dz = -renderDistance; dz <= renderDistance; dz++) {
+                if (dx * dx + dz * dz > renderSq) continue;
+
+                int cx = predictedChunkX + dx;
+                int cz = predictedChunkZ + dz;
+                int px = cx - playerChunkX;
+                int pz = cz - playerChunkZ;
+                int playerDistSq = px * px + pz * pz;
+
+                // Already within render distance (normal loading) or too far out
+                if (playerDistSq <= renderSq || playerDistSq > outerSq) continue;
+
+                candidates.add(new Vector2i(cx, cz));
+            }
+        }
+
+        // Nearest first - those are needed soonest
+        candidates.sort(Comparator.comparingInt(c ->
+                (c.x - playerChunkX) * (c.x - playerChunkX) + (c.y - playerChunkZ) * (c.y - playerChunkZ)));
+        candidateSet.addAll(candidates);
+    }
+
+    /**
+     * Picks the chunks to load this update: not yet resident, within the per-update
+     * budget and the resident prefetch cap.
+     */
+    public List<Vector2i> selectChunksToLoad(Set<Vector2i> resident) {
+        int residentPrefetched = 0;
+        for (Vector2i candidate : candidates) {
+            if (resident.contains(candidate)) residentPrefetched++;
+        }
+
+        List<Vector2i> toLoad = new ArrayList<>();
+        for (Vector2i candidate : candidates) {
+            if (toLoad.size() >= MAX_PREFETCH_PER_UPDATE) break;
+            if (residentPrefetched + toLoad.size() >= MAX_PREFETCHED_CHUNKS) break;
+            if (!resident.contains(candidate)) {
+                toLoad.add(candidate);
+            }
+        }
+        return toLoad;
+    }
+
+    // Prefetched chunks stay loaded while they remain candidates
+    public boolean shouldRetain(Vector2i chunkKey) {
+        return candidateSet.contains(chunkKey);
+    }
+
+    // Called with the render-distance set each update; counts newly needed chunks that were already loaded
+    public void recordNeeded(Set<Vector2i> neededChunks, Set<Vector2i> resident) {
+        if (!previouslyNeeded.isEmpty()) {
+            for (Vector2i key : neededChunks) {
+                if (previouslyNeeded.contains(key)) continue;
+                if (resident.contains(key)) {
+                    neededHits++;
+                } else {
+                    neededMisses++;
+                }
+            }
+        }
+
+        previouslyNeeded.clear();
+        previouslyNeeded.addAll(neededChunks);
+    }
+
+    public long getNeededHits() {
+        return neededHits;
+    }
+
+    public long getNeededMisses() {
+        return neededMisses;
+    }
+
+    // Fraction of chunks entering the render distance that were already resident
+    public float getHitRate() {
+        long total = neededHits + neededMisses;
+        return total == 0 ? 0.0f : (float)neededHits / total;
+    }
+}
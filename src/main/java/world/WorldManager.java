@@ -3,25 +3,34 @@ package world;
 import org.joml.Vector2i;
 import org.joml.Vector3f;
 import render.ChunkRenderer;
-import world.blocks.*;
-import world.generator.NoiseGenerator;
+import world.generator.TerrainGenerator;
+import world.storage.BlockEditJournal;
+import world.storage.BlockEditJournal.BlockEdit;
+import world.storage.ChunkStorage;
+import world.storage.ChunkWriter;
+import world.storage.SavedChunkIndex;
 
 import java.io.*;
 import java.util.*;
 
 public class WorldManager {
     private final Map<Vector2i, Chunk> chunks = new HashMap<>();
-    private final Map<Vector3f, Block> blocks = new HashMap<>();
+    // Reused key for getChunkAt, called hundreds of times a frame (main thread only, like the map)
+    private final Vector2i lookupKey = new Vector2i();
     private final int CHUNK_SIZE = 16;
+    // Chunks are loaded as far as they are drawn (LOD included); block queries go through the chunks,
+    // so a far chunk costs its block array only
     private final int RENDER_DISTANCE = ChunkRenderer.getRenderDistance();
     private final int PRELOAD_DISTANCE = 6;
 
     // Chunk loading queue
     private final Queue<Vector2i> chunksToGenerate = new LinkedList<>();
     private final Set<Vector2i> currentlyGenerating = new HashSet<>();
-    private final Set<Vector2i> modifiedChunks = new HashSet<>();
+    private final ChunkPrefetcher prefetcher = new ChunkPrefetcher(CHUNK_SIZE, RENDER_DISTANCE);
+    // Dirty chunks -> time (nanoTime) they first became dirty; insertion order = oldest first
+    private final LinkedHashMap<Vector2i, Long> modifiedChunks = new LinkedHashMap<>();
 
-    private final NoiseGenerator noise = new NoiseGenerator(System.currentTimeMillis());
+    private final TerrainGenerator terrainGenerator = new TerrainGenerator(System.currentTimeMillis());
 
     // === CHUNK SAVE/LOAD PATHS ===
     private static final String SAVE_DIR = "saves/world/";
@@ -31,6 +40,16 @@ public class WorldManager {
         new File(SAVE_DIR).mkdirs();
     }
 
+    // === BLOCK EDIT JOURNAL ===
+    // Edits are durable as soon as the journal commits them; chunk files catch up on save
+    private final BlockEditJournal journal = new BlockEditJournal(SAVE_DIR + "edits.journal");
+    private final Map<Vector2i, List<BlockEdit>> journalReplay = journal.takeReplayEdits();
+
+    // Which chunks have a file on disk - avoids a filesystem stat per chunk load
+    private final SavedChunkIndex savedChunkIndex = new SavedChunkIndex(SAVE_DIR);
+    // Chunk files are written and fsynced off the main thread
+    private final ChunkWriter chunkWriter = new ChunkWriter();
+
     // === MODIFIED: generateChunkInternal with proper save/load ===
     private void generateChunkInternal(int chunkX, int chunkZ) {
         Vector2i chunkKey = new Vector2i(chunkX, chunkZ);
@@ -44,8 +63,7 @@ public class WorldManager {
         Chunk loadedChunk = loadChunkFromDisk(chunkX, chunkZ);
         if (loadedChunk != null) {
             chunks.put(chunkKey, loadedChunk);
-            // IMPORTANT: Update the blocks map with loaded chunk data
-            updateBlocksMapFromChunk(loadedChunk);
+            applyJournalEdits(loadedChunk);
             return;
         }
 
@@ -53,223 +71,77 @@ public class WorldManager {
         Chunk chunk = new Chunk(chunkX, 0, chunkZ);
         chunks.put(chunkKey, chunk);
 
-        int worldXOffset = chunkX * CHUNK_SIZE;
-        int worldZOffset = chunkZ * CHUNK_SIZE;
-
-        NoiseGenerator stoneNoise = new NoiseGenerator(System.currentTimeMillis() + 12345);
-
-        for (int x = 0; x < CHUNK_SIZE; x++) {
-            for (int z = 0; z < CHUNK_SIZE; z++) {
-                int worldX = x + worldXOffset;
-                int worldZ = z + worldZOffset;
-
-                // Terrain height noise
-                float n = noise.interpolatedNoise(worldX * .02f, worldZ * .04f);
-                int baseHeight = (int)((n + 2f) * 4) + 5;
-
-                // Stone layer thickness
-                float stoneNoiseVal = stoneNoise.interpolatedNoise(worldX * 0.1f, worldZ * 0.2f);
-                int stoneLayers = 10 + (int)((stoneNoiseVal + 1f) * 1.5f);
-
-                int totalHeight = Math.max(baseHeight, stoneLayers + 1);
-
-                // Biome/moisture noise to determine top block type
-                // Using lower frequency for larger biome areas
-                float moisture = noise.interpolatedMoistureNoise(worldX * 0.5f, worldZ * 0.5f);
-
-                for (int y = 0; y < totalHeight; y++) {
-                    Vector3f pos = new Vector3f(worldX, y, worldZ);
-                    Block block;
-
-                    // Top layer logic
-                    if (y == totalHeight - 1) {
-                        // Determine top block based on moisture noise
-                        if (moisture > 0.2f) {
-                            // Moist areas get grass (you'll need to create a GrassBlock class)
-                            block = new GrassBlock();
-                        } else if (moisture < -0.2f) {
-                            // Dry areas get sand
-                            block = new SandBlock();
-                        } else {
-                            // Transition areas get dirt (you'll need to create a DirtBlock class)
-                            block = new GrassBlock();
-                        }
-                    }
-                    // Just below top layer - convert grass to dirt or keep as sand
-                    else if (y == totalHeight - 2) {
-                        if (moisture > 0.2f) {
-                            // Under grass should be dirt
-                            block = new DirtBlock();
-                        } else {
-                            // Under sand should be more sand
-                            block = new SandBlock();
-                        }
-                    }
-                    // Upper stone layers (with some dirt transition)
-                    else if (y >= totalHeight - 3 && y >= totalHeight - 1 - stoneLayers) {
-                        // Add some dirt/gravel transition before pure stone
-                        if (y >= totalHeight - 5 && y < totalHeight - 3 && moisture > 0.2f) {
-                            block = new GrassBlock();
-                        } else {
-                            block = new StoneBlock();
-                        }
-                    }
-                    // Pure stone layers
-                    else if (y >= totalHeight - 1 - stoneLayers) {
-                        block = new StoneBlock();
-                    }
-                    // Everything else (debug or air)
-                    else {
-                        block = new GrassBlock();
-                    }
+        terrainGenerator.generate(chunk, null);
 
-                    blocks.put(pos, block);
-                    chunk.setBlock(x, y, z, block);
-                }
-            }
-        }
+        applyJournalEdits(chunk);
     }
 
-    // === NEW: Update blocks map from loaded chunk ===
-    private void updateBlocksMapFromChunk(Chunk chunk) {
+    // === NEW: Replay journaled edits over a freshly loaded/generated chunk ===
+    private void applyJournalEdits(Chunk chunk) {
+        List<BlockEdit> edits = journalReplay.remove(new Vector2i(chunk.chunkX, chunk.chunkZ));
+        if (edits == null) {
+            return;
+        }
+
         int worldXOffset = chunk.chunkX * CHUNK_SIZE;
         int worldZOffset = chunk.chunkZ * CHUNK_SIZE;
 
-        for (int x = 0; x < CHUNK_SIZE; x++) {
-            for (int y = 0; y < Chunk.SIZE; y++) {
-                for (int z = 0; z < CHUNK_SIZE; z++) {
-                    Block block = chunk.getBlock(x, y, z);
-                    if (block != null && block.isVisible()) {
-                        Vector3f worldPos = new Vector3f(
-                                worldXOffset + x,
-                                y,
-                                worldZOffset + z
-                        );
-                        blocks.put(worldPos, block);
-                    } else {
-                        // Remove if exists (for broken blocks)
-                        Vector3f worldPos = new Vector3f(
-                                worldXOffset + x,
-                                y,
-                                worldZOffset + z
-                        );
-                        blocks.remove(worldPos);
-                    }
-                }
-            }
+        for (BlockEdit edit : edits) {
+            Block block = BlockRegistry.create(edit.newId);
+            chunk.setBlock(edit.x - worldXOffset, edit.y, edit.z - worldZOffset, block);
         }
+
+        // Content is current for rendering; the chunk file still needs the edits
+        chunk.markClean();
+        markChunkModified(chunk.chunkX, chunk.chunkZ);
     }
 
-    // === MODIFIED: Save chunk to disk ===
+    // === MODIFIED: Save chunk to disk (encoding lives in ChunkStorage, the write in ChunkWriter) ===
     private void saveChunkToDisk(Chunk chunk) {
         if (chunk == null) return;
 
-        String filename = SAVE_DIR + "chunk_" + chunk.chunkX + "_" + chunk.chunkZ + ".dat";
-
-        try (DataOutputStream dos = new DataOutputStream(
-                new BufferedOutputStream(new FileOutputStream(filename)))) {
-
-            // Write chunk coordinates
-            dos.writeInt(chunk.chunkX);
-            dos.writeInt(chunk.chunkZ);
-
-            // Write block data
-            int savedBlocks = 0;
-            for (int x = 0; x < CHUNK_SIZE; x++) {
-                for (int y = 0; y < Chunk.SIZE; y++) {
-                    for (int z = 0; z < CHUNK_SIZE; z++) {
-                        Block block = chunk.getBlock(x, y, z);
-                        if (block != null && block.isVisible()) {
-                            dos.writeByte(1); // Block exists
-                            // Write block type
-                            if (block instanceof GrassBlock) {
-                                dos.writeUTF("grass");
-                            } else if (block instanceof StoneBlock) {
-                                dos.writeUTF("stone");
-                            } else if (block instanceof SandBlock) {
-                                dos.writeUTF("sand");
-                            } else {
-                                dos.writeUTF("null"); // Default
-                            }
-                            savedBlocks++;
-                        } else {
-                            dos.writeByte(0); // Air block
-                        }
-                    }
-                }
+        File file = new File(SAVE_DIR + SavedChunkIndex.fileName(chunk.chunkX, chunk.chunkZ));
+
+        // Every journaled edit so far is already applied to the chunk, so the snapshot covers them
+        chunkWriter.submit(file, chunk.chunkX, chunk.chunkZ, ChunkStorage.toBlockIds(chunk), journal.getSequence());
+    }
+
+    // === NEW: Record chunk files the writer has finished ===
+    public void processCompletedSaves() {
+        ChunkWriter.Write write;
+        while ((write = chunkWriter.pollCompleted()) != null) {
+            if (!write.succeeded()) {
+                continue; // Edits stay in the journal and are replayed on next start
             }
 
-        } catch (IOException e) {
-            System.err.println("❌ Failed to save chunk " + chunk.chunkX + "," + chunk.chunkZ + ": " + e.getMessage());
+            savedChunkIndex.add(write.chunkX, write.chunkZ);
+
+            // Chunk file is durable and holds every journaled edit up to the snapshot
+            journal.checkpoint(write.chunkX, write.chunkZ, write.journalSequence);
         }
     }
 
-    // === MODIFIED: Load chunk from disk ===
+    // === MODIFIED: Load chunk from disk (reads both the current and the legacy format) ===
     private Chunk loadChunkFromDisk(int chunkX, int chunkZ) {
-        String filename = SAVE_DIR + "chunk_" + chunkX + "_" + chunkZ + ".dat";
-        File file = new File(filename);
+        // A write still in flight is newer than whatever is on disk
+        byte[] pendingIds = chunkWriter.getPending(chunkX, chunkZ);
+        if (pendingIds != null) {
+            return ChunkStorage.toChunk(chunkX, chunkZ, pendingIds);
+        }
 
-        if (!file.exists()) {
+        if (!savedChunkIndex.contains(chunkX, chunkZ)) {
             return null; // No saved data
         }
 
-        try (DataInputStream dis = new DataInputStream(
-                new BufferedInputStream(new FileInputStream(filename)))) {
-
-            // Verify coordinates
-            int savedX = dis.readInt();
-            int savedZ = dis.readInt();
-
-            if (savedX != chunkX || savedZ != chunkZ) {
-                System.err.println("❌ Chunk file corrupted: coordinates mismatch");
-                return null;
-            }
-
-            Chunk chunk = new Chunk(chunkX, 0, chunkZ);
-
-            // Read block data
-            int loadedBlocks = 0;
-            for (int x = 0; x < CHUNK_SIZE; x++) {
-                for (int y = 0; y < Chunk.SIZE; y++) {
-                    for (int z = 0; z < CHUNK_SIZE; z++) {
-                        byte hasBlock = dis.readByte();
-                        if (hasBlock == 1) {
-                            String blockType = dis.readUTF();
-                            Block block;
-
-                            switch (blockType) {
-                                case "grass":
-                                    block = new GrassBlock();
-                                    break;
-                                case "stone":
-                                    block = new StoneBlock();
-                                    break;
-                                case "sand":
-                                    block = new SandBlock();
-                                    break;
-                                case "debug":
-                                    block = new DebugBlock();
-                                    break;
-                                case null:
-                                    block = new DebugBlock();
-                                    break;
-                                default:
-                                    System.err.println("Unknown block type: " + blockType + ", using dirt");
-                                    block = new DirtBlock();
-                            }
-
-                            chunk.setBlock(x, y, z, block);
-                            loadedBlocks++;
-                        }
-                        // else: air (null block) - already null by default
-                    }
-                }
-            }
-
-            // Mark as NOT modified (since we just loaded it fresh)
-            chunk.markClean();
-            return chunk;
+        File file = new File(SAVE_DIR + SavedChunkIndex.fileName(chunkX, chunkZ));
 
+        try {
+            // Comes back marked clean (since we just loaded it fresh)
+            return ChunkStorage.loadChunk(file, chunkX, chunkZ);
+        } catch (FileNotFoundException e) {
+            // Deleted behind our back - forget it and fall back to generation
+            savedChunkIndex.remove(chunkX, chunkZ);
+            return null;
         } catch (IOException e) {
             System.err.println("❌ Failed to load chunk " + chunkX + "," + chunkZ + ": " + e.getMessage());
             return null;
@@ -285,11 +157,12 @@ public class WorldManager {
         int savedCount = 0;
 
         // Create a copy to avoid ConcurrentModificationException
-        Set<Vector2i> chunksToSave = new HashSet<>(modifiedChunks);
+        Set<Vector2i> chunksToSave = new HashSet<>(modifiedChunks.keySet());
 
         for (Vector2i chunkKey : chunksToSave) {
             Chunk chunk = chunks.get(chunkKey);
-            if (chunk != null && chunk.isModified()) {
+            // The dirty set is authoritative: the renderer clears Chunk.modified after remeshing
+            if (chunk != null) {
                 saveChunkToDisk(chunk);
                 chunk.markClean(); // Mark as clean after saving
                 savedCount++;
@@ -297,13 +170,56 @@ public class WorldManager {
         }
 
         // Only clear the ones we saved
-        modifiedChunks.removeAll(chunksToSave);
+        modifiedChunks.keySet().removeAll(chunksToSave);
+    }
+
+    // === NEW: Incremental autosave - drain a few dirty chunks per frame ===
+    // Oldest dirty chunks go first. Chunks younger than minAge are left to collect more edits,
+    // chunks older than maxStaleness are saved even if the frame budget is already spent.
+    public int saveModifiedChunksIncremental(float budgetMs, float minAgeSeconds, float maxStalenessSeconds) {
+        processCompletedSaves();
+
+        if (modifiedChunks.isEmpty()) {
+            return 0;
+        }
+
+        long start = System.nanoTime();
+        long budgetNanos = (long)(budgetMs * 1_000_000L);
+        long minAgeNanos = (long)(minAgeSeconds * 1_000_000_000L);
+        long maxStalenessNanos = (long)(maxStalenessSeconds * 1_000_000_000L);
+
+        int savedCount = 0;
+        Iterator<Map.Entry<Vector2i, Long>> iterator = modifiedChunks.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Vector2i, Long> entry = iterator.next();
+            long now = System.nanoTime();
+            long age = now - entry.getValue();
+
+            // Entries are ordered by age, so nothing behind this one is eligible either
+            if (age < minAgeNanos) break;
+            if (age < maxStalenessNanos && now - start >= budgetNanos) break;
+
+            iterator.remove();
+            Chunk chunk = chunks.get(entry.getKey());
+            if (chunk != null) {
+                saveChunkToDisk(chunk);
+                chunk.markClean();
+                savedCount++;
+            }
+        }
+
+        return savedCount;
+    }
+
+    public int getSaveBacklogSize() {
+        return modifiedChunks.size();
     }
 
     // === MODIFIED: Mark chunk as modified ===
     private void markChunkModified(int chunkX, int chunkZ) {
         Vector2i chunkKey = new Vector2i(chunkX, chunkZ);
-        modifiedChunks.add(chunkKey);
+        // Keep the original timestamp so staleness counts from the first unsaved edit
+        modifiedChunks.putIfAbsent(chunkKey, System.nanoTime());
 
         Chunk chunk = chunks.get(chunkKey);
         if (chunk != null) {
@@ -320,11 +236,9 @@ public class WorldManager {
         int z = (int)pos.z;
 
 
-        // Remove from blocks map
-        Vector3f blockPos = new Vector3f(x, y, z);
-        Block removed = blocks.remove(blockPos);
+        Block removed = getBlock(x, y, z);
 
-        if (removed == null) {
+        if (removed == null || !removed.isVisible()) {
             System.out.println("  No block found at that position");
             return;
         }
@@ -339,6 +253,7 @@ public class WorldManager {
             int localX = x - chunkX * CHUNK_SIZE;
             int localZ = z - chunkZ * CHUNK_SIZE;
             chunk.setBlock(localX, y, localZ, null);
+            journal.append(x, y, z, BlockRegistry.idOf(removed), BlockRegistry.AIR);
 
             // Mark chunk as modified
             markChunkModified(chunkX, chunkZ);
@@ -384,10 +299,6 @@ public class WorldManager {
         }
 
         // Place the block
-        Vector3f blockPos = new Vector3f(x, y, z);
-        blocks.put(blockPos, block);
-
-        // Update chunk
         int chunkX = (int)Math.floor(pos.x / CHUNK_SIZE);
         int chunkZ = (int)Math.floor(pos.z / CHUNK_SIZE);
         Vector2i chunkKey = new Vector2i(chunkX, chunkZ);
@@ -397,6 +308,7 @@ public class WorldManager {
             int localX = x - chunkX * CHUNK_SIZE;
             int localZ = z - chunkZ * CHUNK_SIZE;
             chunk.setBlock(localX, y, localZ, block);
+            journal.append(x, y, z, BlockRegistry.AIR, BlockRegistry.idOf(block));
 
             // Mark chunk as modified
             markChunkModified(chunkX, chunkZ);
@@ -407,6 +319,13 @@ public class WorldManager {
 
     // === MODIFIED: Generate chunks around player (save before unloading) ===
     public void generateChunksAround(Vector3f playerPos) {
+        generateChunksAround(playerPos, new Vector3f(), new Vector3f());
+    }
+
+    // === NEW: velocity/look direction let the prefetcher load chunks ahead of the player ===
+    public void generateChunksAround(Vector3f playerPos, Vector3f velocity, Vector3f lookDir) {
+        processCompletedSaves();
+
         int playerChunkX = (int)Math.floor(playerPos.x / CHUNK_SIZE);
         int playerChunkZ = (int)Math.floor(playerPos.z / CHUNK_SIZE);
 
@@ -434,6 +353,9 @@ public class WorldManager {
             }
         }
 
+        // Count chunks entering range that were already resident (prefetch hit rate)
+        prefetcher.recordNeeded(neededChunks, chunks.keySet());
+
         // Generate 1-2 chunks per frame (smooth loading)
         int chunksGenerated = 0;
         while (!chunksToGenerate.isEmpty() && chunksGenerated < 2) {
@@ -443,33 +365,30 @@ public class WorldManager {
             chunksGenerated++;
         }
 
+        // Prefetch ahead of the player, but only once everything in range is loaded
+        prefetcher.update(playerPos, velocity, lookDir);
+        if (chunksToGenerate.isEmpty()) {
+            for (Vector2i chunkKey : prefetcher.selectChunksToLoad(chunks.keySet())) {
+                generateChunkInternal(chunkKey.x, chunkKey.y);
+            }
+        }
+
         // Unload distant chunks (SAVE THEM FIRST!)
         Iterator<Map.Entry<Vector2i, Chunk>> iterator = chunks.entrySet().iterator();
         while (iterator.hasNext()) {
             Map.Entry<Vector2i, Chunk> entry = iterator.next();
             Vector2i chunkKey = entry.getKey();
 
-            if (!neededChunks.contains(chunkKey)) {
+            if (!neededChunks.contains(chunkKey) && !prefetcher.shouldRetain(chunkKey)) {
                 Chunk chunk = entry.getValue();
 
                 // SAVE before unloading!
-                if (chunk.isModified()) {
+                if (chunk.isModified() || modifiedChunks.containsKey(chunkKey)) {
                     saveChunkToDisk(chunk);
                     chunk.markClean();
                     modifiedChunks.remove(chunkKey);
                 }
 
-                // Remove blocks from flat map
-                int worldXOffset = chunkKey.x * CHUNK_SIZE;
-                int worldZOffset = chunkKey.y * CHUNK_SIZE;
-                for (int x = 0; x < CHUNK_SIZE; x++) {
-                    for (int z = 0; z < CHUNK_SIZE; z++) {
-                        for (int y = 0; y < 256; y++) {
-                            blocks.remove(new Vector3f(worldXOffset + x, y, worldZOffset + z));
-                        }
-                    }
-                }
-
                 // Remove chunk
                 iterator.remove();
             }
@@ -479,8 +398,11 @@ public class WorldManager {
     // === MODIFIED: Cleanup - save everything ===
     public void cleanup() {
 
-        // Save all modified chunks
+        // Save all modified chunks, wait for the writes, then checkpoint them
         saveModifiedChunks();
+        chunkWriter.close();
+        processCompletedSaves();
+        journal.close();
 
         // Clean up all chunks
         for (Chunk chunk : chunks.values()) {
@@ -489,7 +411,6 @@ public class WorldManager {
         chunks.clear();
 
         // Clear other collections
-        blocks.clear();
         chunksToGenerate.clear();
         currentlyGenerating.clear();
         modifiedChunks.clear();
@@ -504,8 +425,8 @@ public class WorldManager {
         System.out.println("Loaded: " + (chunk != null));
         System.out.println("Modified: " + (chunk != null && chunk.isModified()));
         System.out.println("Visible blocks: " + (chunk != null ? chunk.getVisibleBlockCount() : 0));
-        System.out.println("Has saved file: " + new File(SAVE_DIR + "chunk_" + chunkX + "_" + chunkZ + ".dat").exists());
-        System.out.println("In modified set: " + modifiedChunks.contains(key));
+        System.out.println("Has saved file: " + savedChunkIndex.contains(chunkX, chunkZ));
+        System.out.println("In modified set: " + modifiedChunks.containsKey(key));
     }
 
     // === The rest of your existing methods (unchanged) ===
@@ -514,7 +435,12 @@ public class WorldManager {
     }
 
     public Chunk getChunkAt(int chunkX, int chunkZ) {
-        return chunks.get(new Vector2i(chunkX, chunkZ));
+        return chunks.get(lookupKey.set(chunkX, chunkZ));
+    }
+
+    // Adjacent chunk on one of Chunk's horizontal sides, null if not loaded
+    public Chunk getNeighbour(Chunk chunk, int side) {
+        return getChunkAt(chunk.chunkX + Chunk.SIDE_DX[side], chunk.chunkZ + Chunk.SIDE_DZ[side]);
     }
 
     public Vector3f getSpawnPoint() {
@@ -538,26 +464,40 @@ public class WorldManager {
 
     }
 
-    public Set<Vector3f> getRenderList() {
-        return blocks.keySet();
+    public Block getBlock(Vector3f pos) {
+        return getBlock((int)Math.floor(pos.x), (int)Math.floor(pos.y), (int)Math.floor(pos.z));
     }
 
-    public Block getBlock(Vector3f pos) {
-        return blocks.get(pos);
+    // Block at a world position, null for air or an unloaded chunk
+    public Block getBlock(int x, int y, int z) {
+        Chunk chunk = getChunkAt(Math.floorDiv(x, CHUNK_SIZE), Math.floorDiv(z, CHUNK_SIZE));
+        if (chunk == null) {
+            return null;
+        }
+        return chunk.getBlock(Math.floorMod(x, CHUNK_SIZE), y, Math.floorMod(z, CHUNK_SIZE));
     }
 
     public boolean hasCube(int x, int y, int z) {
-        return blocks.containsKey(new Vector3f(x, y, z));
+        Block block = getBlock(x, y, z);
+        return block != null && block.isVisible();
     }
 
     public int getTotalBlockCount() {
-        return blocks.size();
+        int count = 0;
+        for (Chunk chunk : chunks.values()) {
+            count += chunk.getVisibleBlockCount();
+        }
+        return count;
     }
 
     public int getTotalChunkCount() {
         return chunks.size();
     }
 
+    public ChunkPrefetcher getPrefetcher() {
+        return prefetcher;
+    }
+
     public boolean isPositionLoaded(Vector3f pos) {
         int chunkX = (int)Math.floor(pos.x / CHUNK_SIZE);
         int chunkZ = (int)Math.floor(pos.z / CHUNK_SIZE);
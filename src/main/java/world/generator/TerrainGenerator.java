@@ -0,0 +1,101 @@
+package world.generator;
+
+import org.joml.Vector3f;
+import world.Block;
+import world.Chunk;
+import world.BlockRegistry;
+
+import java.util.Map;
+
+/**
+ * Procedural terrain for a single chunk column.
+ * Pure CPU code - also used by the meshing benchmarks to get representative chunks.
+ */
+public class TerrainGenerator {
+    private final NoiseGenerator noise;
+    private final NoiseGenerator stoneNoise;
+
+    public TerrainGenerator(long seed) {
+        this.noise = new NoiseGenerator(seed);
+        this.stoneNoise = new NoiseGenerator(seed + 12345);
+    }
+
+    // Fills the chunk; blocksOut (optional) also receives every block by world position
+    public void generate(Chunk chunk, Map<Vector3f, Block> blocksOut) {
+        int worldXOffset = chunk.chunkX * Chunk.SIZE;
+        int worldZOffset = chunk.chunkZ * Chunk.SIZE;
+
+        for (int x = 0; x < Chunk.SIZE; x++) {
+            for (int z = 0; z < Chunk.SIZE; z++) {
+                int worldX = x + worldXOffset;
+                int worldZ = z + worldZOffset;
+
+                // Terrain height noise
+                float n = noise.interpolatedNoise(worldX * .02f, worldZ * .04f);
+                int baseHeight = (int)((n + 2f) * 4) + 5;
+
+                // Stone layer thickness
+                float stoneNoiseVal = stoneNoise.interpolatedNoise(worldX * 0.1f, worldZ * 0.2f);
+                int stoneLayers = 10 + (int)((stoneNoiseVal + 1f) * 1.5f);
+
+                int totalHeight = Math.max(baseHeight, stoneLayers + 1);
+
+                // Biome/moisture noise to determine top block type
+                // Using lower frequency for larger biome areas
+                float moisture = noise.interpolatedMoistureNoise(worldX * 0.5f, worldZ * 0.5f);
+
+                for (int y = 0; y < totalHeight; y++) {
+                    Block block;
+
+                    // Top layer logic
+                    if (y == totalHeight - 1) {
+                        // Determine top block based on moisture noise
+                        if (moisture > 0.2f) {
+                            // Moist areas get grass (you'll need to create a GrassBlock class)
+                            block = BlockRegistry.create(BlockRegistry.GRASS);
+                        } else if (moisture < -0.2f) {
+                            // Dry areas get sand
+                            block = BlockRegistry.create(BlockRegistry.SAND);
+                        } else {
+                            // Transition areas get dirt (you'll need to create a DirtBlock class)
+                            block = BlockRegistry.create(BlockRegistry.GRASS);
+                        }
+                    }
+                    // Just below top layer - convert grass to dirt or keep as sand
+                    else if (y == totalHeight - 2) {
+                        if (moisture > 0.2f) {
+                            // Under grass should be dirt
+                            block = BlockRegistry.create(BlockRegistry.DIRT);
+                        } else {
+                            // Under sand should be more sand
+                            block = BlockRegistry.create(BlockRegistry.SAND);
+                        }
+                    }
+                    // Upper stone layers (with some dirt transition)
+                    else if (y >= totalHeight - 3 && y >= totalHeight - 1 - stoneLayers) {
+                        // Add some dirt/gravel transition before pure stone
+                        if (y >= totalHeight - 5 && y < totalHeight - 3 && moisture > 0.2f) {
+                            block = BlockRegistry.create(BlockRegistry.GRASS);
+                        } else {
+                            block = BlockRegistry.create(BlockRegistry.STONE);
+                        }
+                    }
+                    // Pure stone layers
+                    else if (y >= totalHeight - 1 - stoneLayers) {
+                        block = BlockRegistry.create(BlockRegistry.STONE);
+                    }
+                    // Everything else (debug or air)
+                    else {
+                        block = BlockRegistry.create(BlockRegistry.GRASS);
+                    }
+
+                    if (blocksOut != null) {
+                        blocksOut.put(new Vector3f(worldX, y, worldZ), block);
+                    }
+                    chunk.setBlock(x, y, z, block);
+                }
+            }
+        }
+
+    }
+}
@@ -0,0 +1,335 @@
+package world.storage;
+
+import org.joml.Vector2i;
+import world.Chunk;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Append-only journal of single block edits.
+ *
+ * Every break/place is recorded as a fixed 12 byte entry (position, old ID, new ID).
+ * A background writer batches entries and fsyncs them together (group commit), so
+ * an edit is durable within COMMIT_INTERVAL_MS without rewriting its whole chunk.
+ *
+ * Entries stay "live" until their chunk is written to its chunk file, at which point
+ * the owner calls {@link #checkpoint(int, int, long)} with the sequence the file was
+ * snapshotted at (edits made while it was being written stay live). Once enough
+ * entries are dead the writer rewrites the journal with only the live ones (compaction).
+ */
+public class BlockEditJournal {
+    private static final int MAGIC = 0x424A4E31; // "BJN1"
+    private static final int HEADER_SIZE = 4;
+    private static final int RECORD_SIZE = 12;   // x(4) y(2) z(4) oldId(1) newId(1)
+
+    private static final long COMMIT_INTERVAL_MS = 100;
+    private static final int COMPACT_MIN_DEAD_EDITS = 4096;
+
+    public static class BlockEdit {
+        public final int x, y, z;
+        public final byte oldId, newId;
+        final long sequence; // In-memory order of appends, not stored on disk
+
+        BlockEdit(int x, int y, int z, byte oldId, byte newId, long sequence) {
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.oldId = oldId;
+            this.newId = newId;
+            this.sequence = sequence;
+        }
+    }
+
+    private final Path path;
+    private final Object lock = new Object();
+
+    // Appended but not yet written to disk
+    private final List<BlockEdit> pending = new ArrayList<>();
+    // Not yet reflected in a chunk file, grouped by chunk
+    private final Map<Vector2i, List<BlockEdit>> liveEdits = new HashMap<>();
+    private int liveCount = 0;
+    private int deadCount = 0;
+    private long lastSequence = 0;
+
+    private Map<Vector2i, List<BlockEdit>> replayEdits;
+    private FileChannel channel;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public BlockEditJournal(String filename) {
+        this.path = Paths.get(filename);
+
+        try {
+            readExisting();
+            openChannel();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to open block edit journal " + filename, e);
+        }
+
+        writer = new Thread(this::writerLoop, "block-edit-journal");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    // === Startup replay ===
+    private void readExisting() throws IOException {
+        replayEdits = new HashMap<>();
+        if (!Files.exists(path)) {
+            return;
+        }
+
+        byte[] data = Files.readAllBytes(path);
+        ByteBuffer buf = ByteBuffer.wrap(data);
+        if (data.length < HEADER_SIZE || buf.getInt() != MAGIC) {
+            System.err.println("❌ Block edit journal has an unknown header, ignoring " + path);
+            Files.delete(path);
+            return;
+        }
+
+        // A torn record at the tail (crash mid-write) is simply dropped
+        while (buf.remaining() >= RECORD_SIZE) {
+            BlockEdit edit = new BlockEdit(buf.getInt(), buf.getShort(), buf.getInt(), buf.get(), buf.get(), ++lastSequence);
+            liveEdits.computeIfAbsent(chunkKeyOf(edit), k -> new ArrayList<>()).add(edit);
+            liveCount++;
+        }
+
+        for (Map.Entry<Vector2i, List<BlockEdit>> entry : liveEdits.entrySet()) {
+            replayEdits.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+        }
+
+        if (liveCount > 0) {
+            System.out.println("Block edit journal: " + liveCount + " edits in " + liveEdits.size() + " chunks to replay");
+        }
+    }
+
+    /**
+     * Edits recovered from the journal at startup, grouped by chunk.
+     * The caller applies them when the chunk is loaded or generated.
+     */
+    public Map<Vector2i, List<BlockEdit>> takeReplayEdits() {
+        Map<Vector2i, List<BlockEdit>> edits = replayEdits;
+        replayEdits = new HashMap<>();
+        return edits;
+    }
+
+    // === Recording ===
+    public void append(int x, int y, int z, byte oldId, byte newId) {
+        synchronized (lock) {
+            BlockEdit edit = new BlockEdit(x, y, z, oldId, newId, ++lastSequence);
+            pending.add(edit);
+            liveEdits.computeIfAbsent(chunkKeyOf(edit), k -> new ArrayList<>()).add(edit);
+            liveCount++;
+            lock.notifyAll();
+        }
+    }
+
+    // Sequence of the newest appended edit; a chunk snapshot taken now includes everything up to it
+    public long getSequence() {
+        synchronized (lock) {
+            return lastSequence;
+        }
+    }
+
+    // Called once a chunk file holding the chunk as of upToSequence is durable
+    public void checkpoint(int chunkX, int chunkZ, long upToSequence) {
+        synchronized (lock) {
+            Vector2i key = new Vector2i(chunkX, chunkZ);
+            List<BlockEdit> edits = liveEdits.get(key);
+            if (edits == null) return;
+
+            // Edits are in append order
+            int written = 0;
+            while (written < edits.size() && edits.get(written).sequence <= upToSequence) {
+                written++;
+            }
+            if (written == 0) return;
+
+            if (written == edits.size()) {
+                liveEdits.remove(key);
+            } else {
+                edits.subList(0, written).clear();
+            }
+            liveCount -= written;
+            deadCount += written;
+            if (shouldCompact()) {
+                lock.notifyAll();
+            }
+        }
+    }
+
+    public int getLiveEditCount() {
+        synchronized (lock) {
+            return liveCount;
+        }
+    }
+
+    // === Background writer ===
+    private void writerLoop() {
+        try {
+            while (running) {
+                synchronized (lock) {
+                    while (running && pending.isEmpty() && !shouldCompact()) {
+                        lock.wait();
+                    }
+                }
+
+                // Group commit: edits arriving within the window share one fsync
+                if (running) {
+                    Thread.sleep(COMMIT_INTERVAL_MS);
+                }
+
+                flushPending();
+                if (shouldCompactLocked()) {
+                    compact();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // Final flush on shutdown; the writer owns the channel, so it closes it too
+        flushPending();
+        if (shouldCompactLocked()) {
+            compact();
+        }
+
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("❌ Failed to close block edit journal: " + e.getMessage());
+        }
+    }
+
+    private boolean shouldCompact() {
+        // Caller holds lock
+        if (deadCount == 0) return false;
+        return liveCount == 0 || (deadCount >= COMPACT_MIN_DEAD_EDITS && deadCount > liveCount);
+    }
+
+    private boolean shouldCompactLocked() {
+        synchronized (lock) {
+            return shouldCompact();
+        }
+    }
+
+    private void flushPending() {
+        List<BlockEdit> batch;
+        synchronized (lock) {
+            if (pending.isEmpty()) return;
+            batch = new ArrayList<>(pending);
+            pending.clear();
+        }
+
+        try {
+            writeRecords(channel, batch);
+            channel.force(false);
+        } catch (IOException e) {
+            System.err.println("❌ Failed to write block edit journal: " + e.getMessage());
+        }
+    }
+
+    // Rewrite the journal with only the live edits, then atomically swap it in
+    private void compact() {
+        List<BlockEdit> live = new ArrayList<>();
+        int compactedDead;
+        synchronized (lock) {
+            // Pending edits are part of liveEdits (unless checkpointed), so they land in the new file
+            pending.clear();
+            for (List<BlockEdit> edits : liveEdits.values()) {
+                live.addAll(edits);
+            }
+            compactedDead = deadCount;
+        }
+
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                writeHeader(out);
+                writeRecords(out, live);
+                out.force(false);
+            }
+
+            channel.close();
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            openChannel();
+
+            synchronized (lock) {
+                deadCount -= compactedDead;
+            }
+        } catch (IOException e) {
+            System.err.println("❌ Failed to compact block edit journal: " + e.getMessage());
+            try {
+                if (!channel.isOpen()) openChannel();
+            } catch (IOException reopen) {
+                System.err.println("❌ Failed to reopen block edit journal: " + reopen.getMessage());
+            }
+        }
+    }
+
+    private void openChannel() throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        long size = channel.size();
+        if (size < HEADER_SIZE) {
+            channel.truncate(0);
+            writeHeader(channel);
+            channel.force(false);
+            size = HEADER_SIZE;
+        }
+
+        // Drop a torn tail so new records stay aligned
+        long validSize = HEADER_SIZE + ((size - HEADER_SIZE) / RECORD_SIZE) * RECORD_SIZE;
+        if (validSize != size) {
+            channel.truncate(validSize);
+        }
+        channel.position(validSize);
+    }
+
+    private static void writeHeader(FileChannel out) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).flip();
+        while (header.hasRemaining()) {
+            out.write(header);
+        }
+    }
+
+    private static void writeRecords(FileChannel out, List<BlockEdit> edits) throws IOException {
+        if (edits.isEmpty()) return;
+
+        ByteBuffer buf = ByteBuffer.allocate(edits.size() * RECORD_SIZE);
+        for (BlockEdit edit : edits) {
+            buf.putInt(edit.x);
+            buf.putShort((short) edit.y);
+            buf.putInt(edit.z);
+            buf.put(edit.oldId);
+            buf.put(edit.newId);
+        }
+        buf.flip();
+        while (buf.hasRemaining()) {
+            out.write(buf);
+        }
+    }
+
+    private static Vector2i chunkKeyOf(BlockEdit edit) {
+        return new Vector2i(Math.floorDiv(edit.x, Chunk.SIZE), Math.floorDiv(edit.z, Chunk.SIZE));
+    }
+
+    // Waits for the writer's final flush/compaction; the writer closes the channel itself
+    public void close() {
+        running = false;
+        synchronized (lock) {
+            lock.notifyAll();
+        }
+
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("❌ Interrupted while closing block edit journal, writer is still flushing");
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package world.storage;
+
+import world.BlockRegistry;
+import world.Chunk;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.zip.CRC32;
+
+/**
+ * Chunk file encoding.
+ *
+ * Current format (v2):
+ *   int magic "CHK2", int version, int chunkX, int chunkZ, int height,
+ *   SIZE * height * SIZE block IDs (x-major, then y, then z), long CRC32 of the IDs
+ *
+ * Legacy format (v1, no header):
+ *   int chunkX, int chunkZ, then per block a byte flag followed by a UTF block name
+ *
+ * Readers accept both; writers always produce v2 through a temp file + atomic rename,
+ * so an interrupted write never leaves a half-written chunk behind.
+ */
+public final class ChunkStorage {
+    public static final int MAGIC = 0x43484B32; // "CHK2"
+    public static final int VERSION = 2;
+
+    private static final int LEGACY_HEIGHT = 16;
+
+    private ChunkStorage() {
+    }
+
+    // === Block ID arrays ===
+    public static int index(int x, int y, int z, int height) {
+        return (x * height + y) * Chunk.SIZE + z;
+    }
+
+    public static byte[] toBlockIds(Chunk chunk) {
+        int height = Chunk.HEIGHT;
+        byte[] ids = new byte[Chunk.SIZE * height * Chunk.SIZE];
+        for (int x = 0; x < Chunk.SIZE; x++) {
+            for (int y = 0; y < height; y++) {
+                for (int z = 0; z < Chunk.SIZE; z++) {
+                    ids[index(x, y, z, height)] = BlockRegistry.idOf(chunk.getBlock(x, y, z));
+                }
+            }
+        }
+        return ids;
+    }
+
+    public static Chunk toChunk(int chunkX, int chunkZ, byte[] ids) {
+        int height = ids.length / (Chunk.SIZE * Chunk.SIZE);
+        Chunk chunk = new Chunk(chunkX, 0, chunkZ);
+        for (int x = 0; x < Chunk.SIZE; x++) {
+            for (int y = 0; y < height; y++) {
+                for (int z = 0; z < Chunk.SIZE; z++) {
+                    byte id = ids[index(x, y, z, height)];
+                    if (id != BlockRegistry.AIR) {
+                        chunk.setBlock(x, y, z, BlockRegistry.create(id));
+                    }
+                }
+            }
+        }
+        chunk.markClean();
+        return chunk;
+    }
+
+    // === Reading ===
+    public static boolean isCurrentFormat(File file) throws IOException {
+        try (DataInputStream dis = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            return file.length() >= 4 && dis.readInt() == MAGIC;
+        }
+    }
+
+    // Reads either format; throws if the file belongs to another chunk or is damaged
+    public static byte[] readBlockIds(File file, int chunkX, int chunkZ) throws IOException {
+        try (DataInputStream dis = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            int first = dis.readInt();
+            if (first == MAGIC) {
+                return readCurrent(dis, chunkX, chunkZ);
+            }
+            return readLegacy(dis, first, chunkX, chunkZ);
+        }
+    }
+
+    private static byte[] readCurrent(DataInputStream dis, int chunkX, int chunkZ) throws IOException {
+        int version = dis.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported chunk format version " + version);
+        }
+
+        checkCoordinates(dis.readInt(), dis.readInt(), chunkX, chunkZ);
+
+        int height = dis.readInt();
+        if (height <= 0 || height > 4096) {
+            throw new IOException("Invalid chunk height " + height);
+        }
+
+        byte[] ids = new byte[Chunk.SIZE * height * Chunk.SIZE];
+        dis.readFully(ids);
+
+        CRC32 crc = new CRC32();
+        crc.update(ids);
+        if (dis.readLong() != crc.getValue()) {
+            throw new IOException("Chunk checksum mismatch");
+        }
+        return ids;
+    }
+
+    private static byte[] readLegacy(DataInputStream dis, int savedX, int chunkX, int chunkZ) throws IOException {
+        checkCoordinates(savedX, dis.readInt(), chunkX, chunkZ);
+
+        byte[] ids = new byte[Chunk.SIZE * LEGACY_HEIGHT * Chunk.SIZE];
+        for (int x = 0; x < Chunk.SIZE; x++) {
+            for (int y = 0; y < LEGACY_HEIGHT; y++) {
+                for (int z = 0; z < Chunk.SIZE; z++) {
+                    if (dis.readByte() == 1) {
+                        ids[index(x, y, z, LEGACY_HEIGHT)] = legacyId(dis.readUTF());
+                    }
+                }
+            }
+        }
+        return ids;
+    }
+
+    // Matches the old loader: anything unrecognised (including "null") became dirt
+    private static byte legacyId(String blockType) {
+        return switch (blockType) {
+            case "grass" -> BlockRegistry.GRASS;
+            case "stone" -> BlockRegistry.STONE;
+            case "sand" -> BlockRegistry.SAND;
+            case "debug" -> BlockRegistry.DEBUG;
+            default -> BlockRegistry.DIRT;
+        };
+    }
+
+    private static void checkCoordinates(int savedX, int savedZ, int chunkX, int chunkZ) throws IOException {
+        if (savedX != chunkX || savedZ != chunkZ) {
+            throw new IOException("Chunk file corrupted: coordinates mismatch (" + savedX + "," + savedZ + ")");
+        }
+    }
+
+    // === Writing ===
+    public static void writeBlockIds(File file, int chunkX, int chunkZ, byte[] ids) throws IOException {
+        Path target = file.toPath();
+        Path tmp = tempPath(target);
+
+        writeTemp(tmp, chunkX, chunkZ, ids);
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Writes and fsyncs the v2 encoding to a temp file next to the target
+    static void writeTemp(Path tmp, int chunkX, int chunkZ, byte[] ids) throws IOException {
+        int height = ids.length / (Chunk.SIZE * Chunk.SIZE);
+        CRC32 crc = new CRC32();
+        crc.update(ids);
+
+        try (FileOutputStream fos = new FileOutputStream(tmp.toFile());
+             DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(fos))) {
+            dos.writeInt(MAGIC);
+            dos.writeInt(VERSION);
+            dos.writeInt(chunkX);
+            dos.writeInt(chunkZ);
+            dos.writeInt(height);
+            dos.write(ids);
+            dos.writeLong(crc.getValue());
+            dos.flush();
+            fos.getFD().sync();
+        }
+    }
+
+    static Path tempPath(Path target) {
+        return target.resolveSibling(target.getFileName() + ".tmp");
+    }
+
+    public static void saveChunk(File file, Chunk chunk) throws IOException {
+        writeBlockIds(file, chunk.chunkX, chunk.chunkZ, toBlockIds(chunk));
+    }
+
+    public static Chunk loadChunk(File file, int chunkX, int chunkZ) throws IOException {
+        return toChunk(chunkX, chunkZ, readBlockIds(file, chunkX, chunkZ));
+    }
+}
@@ -0,0 +1,121 @@
+package world.storage;
+
+import org.joml.Vector2i;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Writes chunk files on a background thread, so the fsync behind each one stays off the frame.
+ *
+ * The main thread submits a snapshot of a chunk's block IDs together with the journal
+ * sequence it includes. The writer writes, fsyncs and renames the file in submission
+ * order, then reports it back through pollCompleted(); only then does the owner record
+ * the file and checkpoint the journal, so journaled edits never go away before their
+ * chunk file is durable.
+ *
+ * Until its write completes, a snapshot stays readable through getPending(), so a chunk
+ * that is unloaded and loaded again right away comes back with its latest contents.
+ */
+public class ChunkWriter {
+    public static class Write {
+        public final File file;
+        public final int chunkX, chunkZ;
+        public final long journalSequence; // Journal edits up to here are in ids
+        private final byte[] ids;
+        private volatile boolean succeeded;
+
+        Write(File file, int chunkX, int chunkZ, byte[] ids, long journalSequence) {
+            this.file = file;
+            this.chunkX = chunkX;
+            this.chunkZ = chunkZ;
+            this.ids = ids;
+            this.journalSequence = journalSequence;
+        }
+
+        public boolean succeeded() {
+            return succeeded;
+        }
+    }
+
+    private static final Write STOP = new Write(null, 0, 0, null, 0);
+
+    private final LinkedBlockingQueue<Write> queue = new LinkedBlockingQueue<>();
+    private final ConcurrentLinkedQueue<Write> completed = new ConcurrentLinkedQueue<>();
+    // Newest submitted write per chunk, until it completes (MAIN THREAD only)
+    private final Map<Vector2i, Write> inFlight = new HashMap<>();
+    private final Vector2i lookupKey = new Vector2i();
+    private final Thread writer;
+
+    public ChunkWriter() {
+        writer = new Thread(this::writerLoop, "chunk-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    // === Main thread ===
+    public void submit(File file, int chunkX, int chunkZ, byte[] ids, long journalSequence) {
+        Write write = new Write(file, chunkX, chunkZ, ids, journalSequence);
+        inFlight.put(new Vector2i(chunkX, chunkZ), write);
+        queue.add(write);
+    }
+
+    // Block IDs of the newest write still in flight for this chunk, or null
+    public byte[] getPending(int chunkX, int chunkZ) {
+        Write write = inFlight.get(lookupKey.set(chunkX, chunkZ));
+        return write != null ? write.ids : null;
+    }
+
+    // Next finished write (successful or not), or null
+    public Write pollCompleted() {
+        Write write = completed.poll();
+        if (write != null) {
+            lookupKey.set(write.chunkX, write.chunkZ);
+            // A newer snapshot of the same chunk may still be queued behind this one
+            if (inFlight.get(lookupKey) == write) {
+                inFlight.remove(lookupKey);
+            }
+        }
+        return write;
+    }
+
+    public int getPendingCount() {
+        return inFlight.size();
+    }
+
+    // === Background writer ===
+    private void writerLoop() {
+        try {
+            while (true) {
+                Write write = queue.take();
+                if (write == STOP) {
+                    return;
+                }
+
+                try {
+                    ChunkStorage.writeBlockIds(write.file, write.chunkX, write.chunkZ, write.ids);
+                    write.succeeded = true;
+                } catch (IOException e) {
+                    System.err.println("❌ Failed to save chunk " + write.chunkX + "," + write.chunkZ + ": " + e.getMessage());
+                }
+                completed.add(write);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Finishes every submitted write, then stops; poll the remaining completions afterwards
+    public void close() {
+        queue.add(STOP);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
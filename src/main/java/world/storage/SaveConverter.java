@@ -0,0 +1,140 @@
+package world.storage;
+
+import org.joml.Vector2i;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Offline converter from legacy chunk files to the current ChunkStorage format.
+ *
+ * Usage: java world.storage.SaveConverter [saveDir]   (default: saves/world/)
+ *
+ * Each file is converted independently on a pool sized to the machine's cores:
+ * decode legacy -> write new format to a temp file -> read it back and compare ->
+ * atomically rename over the original. Files already in the current format are
+ * skipped, so an interrupted run can simply be started again.
+ */
+public class SaveConverter {
+    private static final long PROGRESS_INTERVAL_MS = 1000;
+
+    private final File saveDir;
+    private final AtomicInteger converted = new AtomicInteger();
+    private final AtomicInteger skipped = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final AtomicLong bytesRead = new AtomicLong();
+
+    public SaveConverter(File saveDir) {
+        this.saveDir = saveDir;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        String dir = args.length > 0 ? args[0] : "saves/world/";
+        boolean ok = new SaveConverter(new File(dir)).run();
+        System.exit(ok ? 0 : 1);
+    }
+
+    public boolean run() throws InterruptedException {
+        File[] files = saveDir.listFiles();
+        if (files == null) {
+            System.err.println("❌ Save directory not found: " + saveDir);
+            return false;
+        }
+
+        // Leftovers from an interrupted run - the originals are still intact
+        for (File file : files) {
+            if (file.getName().endsWith(".dat.tmp") && !file.delete()) {
+                System.err.println("Could not remove stale temp file " + file);
+            }
+        }
+
+        List<File> chunkFiles = new ArrayList<>();
+        for (File file : files) {
+            if (SavedChunkIndex.parseFileName(file.getName()) != null) {
+                chunkFiles.add(file);
+            }
+        }
+
+        int threads = Runtime.getRuntime().availableProcessors();
+        System.out.println("Converting " + chunkFiles.size() + " chunk files in " + saveDir + " on " + threads + " threads");
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+
+        List<Future<?>> futures = new ArrayList<>(chunkFiles.size());
+        for (File file : chunkFiles) {
+            futures.add(pool.submit(() -> convertFile(file)));
+        }
+        pool.shutdown();
+
+        long lastReport = System.currentTimeMillis();
+        while (!pool.awaitTermination(100, TimeUnit.MILLISECONDS)) {
+            if (System.currentTimeMillis() - lastReport >= PROGRESS_INTERVAL_MS) {
+                report(chunkFiles.size(), start);
+                lastReport = System.currentTimeMillis();
+            }
+        }
+
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                failed.incrementAndGet();
+                System.err.println("❌ Conversion task crashed: " + e.getCause());
+            }
+        }
+
+        report(chunkFiles.size(), start);
+        return failed.get() == 0;
+    }
+
+    private void convertFile(File file) {
+        Vector2i key = SavedChunkIndex.parseFileName(file.getName());
+
+        try {
+            if (ChunkStorage.isCurrentFormat(file)) {
+                skipped.incrementAndGet();
+                return;
+            }
+
+            bytesRead.addAndGet(file.length());
+            byte[] ids = ChunkStorage.readBlockIds(file, key.x, key.y);
+
+            Path target = file.toPath();
+            Path tmp = ChunkStorage.tempPath(target);
+            ChunkStorage.writeTemp(tmp, key.x, key.y, ids);
+
+            // Round trip: what we wrote must decode to exactly what we read
+            byte[] roundTrip = ChunkStorage.readBlockIds(tmp.toFile(), key.x, key.y);
+            if (!Arrays.equals(ids, roundTrip)) {
+                Files.deleteIfExists(tmp);
+                throw new IOException("round-trip mismatch");
+            }
+
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            converted.incrementAndGet();
+        } catch (IOException e) {
+            failed.incrementAndGet();
+            System.err.println("❌ Failed to convert " + file.getName() + ": " + e.getMessage());
+        }
+    }
+
+    private void report(int total, long startNanos) {
+        double seconds = Math.max(1e-9, (System.nanoTime() - startNanos) / 1e9);
+        int done = converted.get() + skipped.get() + failed.get();
+        System.out.printf("%d/%d files | converted %d, skipped %d, failed %d | %.0f files/s, %.1f MB/s%n",
+                done, total,
+                converted.get(), skipped.get(), failed.get(),
+                converted.get() / seconds,
+                bytesRead.get() / seconds / (1024.0 * 1024.0));
+    }
+}
@@ -0,0 +1,73 @@
+package world.storage;
+
+import org.joml.Vector2i;
+
+import java.io.File;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * In-memory index of which chunk coordinates have a chunk file on disk.
+ * Built once from a directory scan and kept current by the save path, so
+ * lookups for never-saved chunks don't touch the filesystem.
+ */
+public class SavedChunkIndex {
+    private static final String PREFIX = "chunk_";
+    private static final String SUFFIX = ".dat";
+
+    private final Set<Vector2i> savedChunks = new HashSet<>();
+
+    public SavedChunkIndex(String saveDir) {
+        String[] names = new File(saveDir).list();
+        if (names == null) {
+            return;
+        }
+
+        for (String name : names) {
+            Vector2i key = parseFileName(name);
+            if (key != null) {
+                savedChunks.add(key);
+            }
+        }
+
+        System.out.println("Saved chunk index: " + savedChunks.size() + " chunk files");
+    }
+
+    // "chunk_<x>_<z>.dat" -> (x, z), null for anything else
+    public static Vector2i parseFileName(String name) {
+        if (!name.startsWith(PREFIX) || !name.endsWith(SUFFIX)) {
+            return null;
+        }
+
+        String[] parts = name.substring(PREFIX.length(), name.length() - SUFFIX.length()).split("_");
+        if (parts.length != 2) {
+            return null;
+        }
+
+        try {
+            return new Vector2i(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public static String fileName(int chunkX, int chunkZ) {
+        return PREFIX + chunkX + "_" + chunkZ + SUFFIX;
+    }
+
+    public boolean contains(int chunkX, int chunkZ) {
+        return savedChunks.contains(new Vector2i(chunkX, chunkZ));
+    }
+
+    public void add(int chunkX, int chunkZ) {
+        savedChunks.add(new Vector2i(chunkX, chunkZ));
+    }
+
+    public void remove(int chunkX, int chunkZ) {
+        savedChunks.remove(new Vector2i(chunkX, chunkZ));
+    }
+
+    public int size() {
+        return savedChunks.size();
+    }
+}
@@ -3,45 +3,46 @@ uniform float u_Sunlit;
 in vec3 FragPos;
 in vec3 Normal;
 in vec2 TexCoord;
+in vec2 TileOrigin;
 in vec4 FragPosLightSpace;
+in float AO;
 out vec4 FragColor;
 uniform sampler2D u_Texture;
+uniform float u_TileSize;
 uniform sampler2D shadowMap;
-uniform vec3 u_LightDir;
-uniform vec3 u_LightColor;
-uniform vec3 u_Ambient;
+uniform float u_Alpha; // < 1 only in the translucent pass
 
+// Frame-constant uniforms, std140 - layout must match shader.FrameUniforms
+layout(std140) uniform FrameData {
+    mat4 u_Projection;
+    mat4 u_View;
+    mat4 u_ProjectionView;
+    mat4 u_LightSpaceMatrix;
+    vec3 u_LightDir;
+    float u_Time;
+    vec3 u_LightColor;
+    int u_UseFog;
+    vec3 u_Ambient;
+    int u_UseShadows;
+    vec3 u_ViewPos;
+    int u_UsePBR;
+};
 
-// Analytic ray-marched shadow for flat ground at y=0
-float RaymarchShadow(vec3 origin, vec3 dir) {
-    float shadow = 0.0;
-    float t = 0.1;
-    for (int i = 0; i < 32; i++) {
-        vec3 p = origin + dir * t;
-        if (p.y < 0.05) { // hit ground
-            shadow = 1.0;
-            break;
-        }
-        t += 0.2;
-        if (t > 32.0) break;
-    }
-    return shadow;
-}
 
 void main() {
-    vec3 color = texture(u_Texture, TexCoord).rgb;
+    // Repeat the tile across merged quads; explicit gradient avoids seams at the fract() wrap
+    vec2 atlasCoord = TileOrigin + fract(TexCoord) * u_TileSize;
+    vec3 color = textureGrad(u_Texture, atlasCoord, dFdx(TexCoord) * u_TileSize, dFdy(TexCoord) * u_TileSize).rgb;
     vec3 norm = normalize(Normal);
     vec3 lightDir = normalize(-u_LightDir);
 
     float diff = max(dot(norm, lightDir), 0.0);
     vec3 diffuse = diff * u_LightColor;
 
-    float shadow = RaymarchShadow(FragPos + 0.05 * lightDir, lightDir);
-
-    // Sun color and global illumination
-    vec3 sunLight = u_Sunlit * (1.0 - 0.7 * shadow) * diffuse;
+    // Sun color and global illumination, darkened in corners by the AO baked into the mesh
+    vec3 sunLight = u_Sunlit * diffuse;
     vec3 globalIllum = u_Ambient;
-    vec3 lighting = (sunLight + globalIllum) * color;
+    vec3 lighting = (sunLight + globalIllum) * AO * color;
 
-    FragColor = vec4(lighting, 1.0);
+    FragColor = vec4(lighting, u_Alpha);
 }
\ No newline at end of file
@@ -1,22 +1,73 @@
 #version 410 core
 
-layout(location = 0) in vec3 aPos;
-layout(location = 1) in vec2 aTexCoord;
+// One packed vertex per uint, see mesh.ChunkMeshData:
+// x:5 y:5 z:5 (section-local) | normal:3 (Face ordinal) | tile:8 (atlas tile index) | ao:2
+layout(location = 0) in uint aPacked;
 
 out vec3 FragPos;
-out vec2 TexCoord;
+out vec3 Normal;
+out vec2 TexCoord;    // Tiling coords in blocks, wrapped with fract() in the fragment shader
+out vec2 TileOrigin;  // Atlas tile corner
 out vec4 FragPosLightSpace;  // Add this
+out float AO;         // Baked corner occlusion, 1 = open
 
-uniform mat4 u_Model;
-uniform mat4 u_MVP;
-uniform mat4 u_LightSpaceMatrix;  // Add this
+// Frame-constant uniforms, std140 - layout must match shader.FrameUniforms
+layout(std140) uniform FrameData {
+    mat4 u_Projection;
+    mat4 u_View;
+    mat4 u_ProjectionView;
+    mat4 u_LightSpaceMatrix;
+    vec3 u_LightDir;
+    float u_Time;
+    vec3 u_LightColor;
+    int u_UseFog;
+    vec3 u_Ambient;
+    int u_UseShadows;
+    vec3 u_ViewPos;
+    int u_UsePBR;
+};
+
+// Section origin per VertexArena block: BaseVertex draws count gl_VertexID from the start of the arena
+uniform samplerBuffer u_SectionOrigins;
+uniform int u_OriginBlockShift;
+uniform float u_TileSize;
+
+// FRONT, BACK, LEFT, RIGHT, TOP, BOTTOM
+const vec3 NORMALS[6] = vec3[6](
+    vec3(0.0, 0.0, 1.0), vec3(0.0, 0.0, -1.0),
+    vec3(-1.0, 0.0, 0.0), vec3(1.0, 0.0, 0.0),
+    vec3(0.0, 1.0, 0.0), vec3(0.0, -1.0, 0.0)
+);
+
+// Brightness per AO level (0 = both sides of the corner blocked .. 3 = open)
+const float AO_CURVE[4] = float[4](0.45, 0.6, 0.8, 1.0);
+
+// Texture axes per face - matches the orientation of the original per-face UVs
+vec2 faceTexCoord(vec3 p, uint face) {
+    switch (face) {
+        case 0u: return vec2( p.x, -p.y);  // FRONT
+        case 1u: return vec2(-p.x, -p.y);  // BACK
+        case 2u: return vec2( p.z, -p.y);  // LEFT
+        case 3u: return vec2(-p.z, -p.y);  // RIGHT
+        default: return p.xz;              // TOP, BOTTOM
+    }
+}
 
 void main() {
-    FragPos = vec3(u_Model * vec4(aPos, 1.0));
-    TexCoord = aTexCoord;
+    vec3 aPos = vec3(float(aPacked & 31u), float((aPacked >> 5) & 31u), float((aPacked >> 10) & 31u));
+    uint face = (aPacked >> 15) & 7u;
+    uint tile = (aPacked >> 18) & 255u;
+    AO = AO_CURVE[(aPacked >> 26) & 3u];
+
+    uint columns = uint(round(1.0 / u_TileSize));
+    TileOrigin = vec2(float(tile % columns), float(tile / columns)) * u_TileSize;
+    TexCoord = faceTexCoord(aPos, face);
+    Normal = NORMALS[face];
+
+    FragPos = texelFetch(u_SectionOrigins, gl_VertexID >> u_OriginBlockShift).xyz + aPos;
 
     // Calculate fragment position in light space
     FragPosLightSpace = u_LightSpaceMatrix * vec4(FragPos, 1.0);
 
-    gl_Position = u_MVP * vec4(aPos, 1.0);
-}
\ No newline at end of file
+    gl_Position = u_ProjectionView * vec4(FragPos, 1.0);
+}
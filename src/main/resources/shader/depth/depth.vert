@@ -2,7 +2,22 @@
 
 layout(location = 0) in vec3 aPos;
 
-uniform mat4 u_LightSpaceMatrix;
+// Frame-constant uniforms, std140 - layout must match shader.FrameUniforms
+layout(std140) uniform FrameData {
+    mat4 u_Projection;
+    mat4 u_View;
+    mat4 u_ProjectionView;
+    mat4 u_LightSpaceMatrix;
+    vec3 u_LightDir;
+    float u_Time;
+    vec3 u_LightColor;
+    int u_UseFog;
+    vec3 u_Ambient;
+    int u_UseShadows;
+    vec3 u_ViewPos;
+    int u_UsePBR;
+};
+
 uniform mat4 u_Model;
 
 void main() {
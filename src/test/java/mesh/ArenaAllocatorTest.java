@@ -0,0 +1,227 @@
+package mesh;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArenaAllocatorTest {
+    private static final int MIN = ArenaAllocator.MIN_BLOCK_VERTICES;
+
+    @Test
+    void capacityRoundsUpToPowerOfTwoBlocks() {
+        assertEquals(1024, new ArenaAllocator(1000).getCapacity());
+        assertEquals(8 * MIN, new ArenaAllocator(5 * MIN).getCapacity());
+        assertEquals(MIN, new ArenaAllocator(1).getCapacity());
+    }
+
+    @Test
+    void randomAllocateAndFreeNeverOverlaps() {
+        Random random = new Random(1234);
+        ArenaAllocator allocator = new ArenaAllocator(1 << 16);
+        Map<Integer, Integer> live = new HashMap<>(); // offset -> requested vertices
+
+        for (int step = 0; step < 20000; step++) {
+            if (live.isEmpty() || random.nextInt(3) != 0) {
+                int vertices = 1 + random.nextInt(random.nextBoolean() ? MIN * 2 : MIN * 40);
+                int offset = allocator.allocate(vertices);
+                if (offset < 0) {
+                    freeRandom(allocator, live, random);
+                    continue;
+                }
+                assertAllocation(allocator, offset, vertices);
+                live.put(offset, vertices);
+            } else {
+                freeRandom(allocator, live, random);
+            }
+
+            if (step % 500 == 0) {
+                assertNoOverlap(allocator, live);
+                assertStatistics(allocator, live);
+            }
+        }
+        assertNoOverlap(allocator, live);
+        assertStatistics(allocator, live);
+    }
+
+    @Test
+    void freeingEverythingCoalescesBackToOneBlock() {
+        Random random = new Random(99);
+        ArenaAllocator allocator = new ArenaAllocator(1 << 14);
+        List<Integer> offsets = new ArrayList<>();
+        int offset;
+        while ((offset = allocator.allocate(1 + random.nextInt(MIN * 6))) >= 0) {
+            offsets.add(offset);
+        }
+        assertTrue(allocator.getExternalFragmentation() < 1.0);
+
+        Collections.shuffle(offsets, random);
+        for (int allocated : offsets) {
+            allocator.free(allocated);
+        }
+
+        assertEquals(0, allocator.getAllocationCount());
+        assertEquals(allocator.getCapacity(), allocator.getFreeVertices());
+        assertEquals(allocator.getCapacity(), allocator.getLargestFreeBlock());
+        assertEquals(0.0, allocator.getExternalFragmentation(), 0.0);
+        assertEquals(0, allocator.allocate(allocator.getCapacity()), "whole arena is one block again");
+    }
+
+    @Test
+    void buddiesMergeOnlyWhenBothAreFree() {
+        ArenaAllocator allocator = new ArenaAllocator(4 * MIN);
+        int a = allocator.allocate(MIN);
+        int b = allocator.allocate(MIN);
+        int c = allocator.allocate(2 * MIN);
+        assertEquals(0, a);
+        assertEquals(MIN, b);
+        assertEquals(2 * MIN, c);
+
+        allocator.free(a);
+        assertEquals(MIN, allocator.getLargestFreeBlock(), "buddy b is still in use");
+        allocator.free(b);
+        assertEquals(2 * MIN, allocator.getLargestFreeBlock());
+        allocator.free(c);
+        assertEquals(4 * MIN, allocator.getLargestFreeBlock());
+    }
+
+    @Test
+    void growKeepsExistingOffsetsValid() {
+        ArenaAllocator allocator = new ArenaAllocator(8 * MIN);
+        Map<Integer, Integer> live = new HashMap<>();
+        int offset;
+        while ((offset = allocator.allocate(MIN + 1)) >= 0) {
+            live.put(offset, MIN + 1);
+        }
+        int oldCapacity = allocator.getCapacity();
+        Map<Integer, Integer> capacities = new HashMap<>();
+        for (int allocated : live.keySet()) {
+            capacities.put(allocated, allocator.capacityOf(allocated));
+        }
+
+        allocator.grow();
+        assertEquals(oldCapacity * 2, allocator.getCapacity());
+        for (int allocated : live.keySet()) {
+            assertEquals((int) capacities.get(allocated), allocator.capacityOf(allocated));
+        }
+
+        // New space is the upper half, and all of it is usable
+        while ((offset = allocator.allocate(MIN + 1)) >= 0) {
+            assertTrue(offset >= oldCapacity, "allocated " + offset + " inside the full old arena");
+            assertAllocation(allocator, offset, MIN + 1);
+            live.put(offset, MIN + 1);
+        }
+        assertEquals(0, allocator.getFreeVertices());
+        assertNoOverlap(allocator, live);
+        assertStatistics(allocator, live);
+
+        // Old and new halves merge once everything is freed
+        for (int allocated : live.keySet()) {
+            allocator.free(allocated);
+        }
+        assertEquals(allocator.getCapacity(), allocator.getLargestFreeBlock());
+    }
+
+    @Test
+    void growOfAnEmptyArenaMergesWithIt() {
+        ArenaAllocator allocator = new ArenaAllocator(4 * MIN);
+        allocator.grow();
+        assertEquals(8 * MIN, allocator.getLargestFreeBlock());
+        assertEquals(0, allocator.allocate(8 * MIN));
+    }
+
+    @Test
+    void fragmentationStatistics() {
+        ArenaAllocator allocator = new ArenaAllocator(16 * MIN);
+        assertEquals(0.0, allocator.getInternalFragmentation(), 0.0);
+        assertEquals(0.0, allocator.getExternalFragmentation(), 0.0);
+
+        // One vertex takes a whole min-block, and splits 16 into 1 + 1 + 2 + 4 + 8
+        int small = allocator.allocate(1);
+        assertEquals(1, allocator.getRequestedVertices());
+        assertEquals(MIN, allocator.getAllocatedVertices());
+        assertEquals(1.0 - 1.0 / MIN, allocator.getInternalFragmentation(), 1e-9);
+        assertEquals(8 * MIN, allocator.getLargestFreeBlock());
+        assertEquals(1.0 - 8.0 / 15.0, allocator.getExternalFragmentation(), 1e-9);
+
+        // 3 * MIN rounds up to 4 * MIN
+        int medium = allocator.allocate(3 * MIN);
+        assertEquals(1 + 3 * MIN, allocator.getRequestedVertices());
+        assertEquals(5 * MIN, allocator.getAllocatedVertices());
+        assertEquals(1.0 - (1.0 + 3 * MIN) / (5 * MIN), allocator.getInternalFragmentation(), 1e-9);
+        // Free: 1 + 2 + 8 min-blocks
+        assertEquals(11 * MIN, allocator.getFreeVertices());
+        assertEquals(1.0 - 8.0 / 11.0, allocator.getExternalFragmentation(), 1e-9);
+
+        allocator.free(small);
+        allocator.free(medium);
+        assertEquals(0, allocator.getRequestedVertices());
+        assertEquals(0, allocator.getAllocatedVertices());
+        assertEquals(0.0, allocator.getInternalFragmentation(), 0.0);
+        assertEquals(0.0, allocator.getExternalFragmentation(), 0.0);
+    }
+
+    @Test
+    void tooLargeReturnsMinusOne() {
+        ArenaAllocator allocator = new ArenaAllocator(4 * MIN);
+        assertEquals(-1, allocator.allocate(4 * MIN + 1));
+        assertEquals(0, allocator.getAllocationCount());
+    }
+
+    @Test
+    void freeOfUnknownOffsetThrows() {
+        ArenaAllocator allocator = new ArenaAllocator(4 * MIN);
+        int offset = allocator.allocate(MIN);
+        allocator.free(offset);
+        assertThrows(IllegalArgumentException.class, () -> allocator.free(offset));
+        assertThrows(IllegalArgumentException.class, () -> allocator.free(2 * MIN));
+    }
+
+    private static void freeRandom(ArenaAllocator allocator, Map<Integer, Integer> live, Random random) {
+        if (live.isEmpty()) return;
+        List<Integer> offsets = new ArrayList<>(live.keySet());
+        int offset = offsets.get(random.nextInt(offsets.size()));
+        allocator.free(offset);
+        live.remove(offset);
+        assertEquals(0, allocator.capacityOf(offset));
+    }
+
+    // Aligned to a min-block and to its own (power-of-two) block size, inside the arena, big enough
+    private static void assertAllocation(ArenaAllocator allocator, int offset, int vertices) {
+        int capacity = allocator.capacityOf(offset);
+        assertEquals(0, offset % MIN, "offset " + offset + " not on a min-block boundary");
+        assertEquals(0, Integer.bitCount(capacity / MIN) - 1, "block of " + capacity + " not a power of two");
+        assertEquals(0, offset % capacity, "offset " + offset + " not aligned to its block of " + capacity);
+        assertTrue(capacity >= vertices);
+        assertTrue(capacity < 2 * Math.max(vertices, MIN), "block of " + capacity + " for " + vertices);
+        assertTrue(offset + capacity <= allocator.getCapacity());
+    }
+
+    private static void assertNoOverlap(ArenaAllocator allocator, Map<Integer, Integer> live) {
+        boolean[] used = new boolean[allocator.getCapacity() / MIN];
+        for (int offset : live.keySet()) {
+            int blocks = allocator.capacityOf(offset) / MIN;
+            for (int i = offset / MIN; i < offset / MIN + blocks; i++) {
+                assertFalse(used[i], "min-block " + i + " handed out twice");
+                used[i] = true;
+            }
+        }
+    }
+
+    private static void assertStatistics(ArenaAllocator allocator, Map<Integer, Integer> live) {
+        long requested = 0;
+        long allocated = 0;
+        for (Map.Entry<Integer, Integer> entry : live.entrySet()) {
+            requested += entry.getValue();
+            allocated += allocator.capacityOf(entry.getKey());
+        }
+        assertEquals(live.size(), allocator.getAllocationCount());
+        assertEquals(requested, allocator.getRequestedVertices());
+        assertEquals(allocated, allocator.getAllocatedVertices());
+        assertEquals(allocator.getCapacity() - allocated, allocator.getFreeVertices());
+        assertTrue(allocator.getLargestFreeBlock() <= allocator.getFreeVertices());
+        double internal = allocated == 0 ? 0.0 : 1.0 - (double) requested / allocated;
+        assertEquals(internal, allocator.getInternalFragmentation(), 1e-9);
+    }
+}
@@ -0,0 +1,75 @@
+package mesh;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.IntBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuadIndicesTest {
+    private static final int[] PATTERN = {0, 1, 2, 2, 3, 0};
+
+    @Test
+    void firstQuadIsTwoTriangles() {
+        assertArrayEquals(PATTERN, QuadIndices.generate(1));
+    }
+
+    @Test
+    void generateOffsetsEachQuadByFourVertices() {
+        for (int quadCount : new int[]{0, 1, 2, 7, 1000}) {
+            int[] indices = QuadIndices.generate(quadCount);
+            assertEquals(quadCount * QuadIndices.INDICES_PER_QUAD, indices.length);
+            assertPattern(indices, 0, 0, quadCount);
+        }
+    }
+
+    @Test
+    void fillWritesAnyQuadRangeAtTheBufferPosition() {
+        int[][] ranges = {{0, 0}, {0, 1}, {1, 1}, {3, 5}, {1023, 1}, {250, 300}};
+        for (int[] range : ranges) {
+            int firstQuad = range[0];
+            int quadCount = range[1];
+            int offset = 5; // Something already in the buffer
+
+            IntBuffer buffer = IntBuffer.allocate(offset + quadCount * QuadIndices.INDICES_PER_QUAD + 3);
+            buffer.position(offset);
+            QuadIndices.fill(buffer, firstQuad, quadCount);
+
+            assertEquals(offset + quadCount * QuadIndices.INDICES_PER_QUAD, buffer.position());
+            for (int i = 0; i < offset; i++) {
+                assertEquals(0, buffer.get(i), "wrote before the buffer position");
+            }
+            assertPattern(buffer.array(), offset, firstQuad, quadCount);
+        }
+    }
+
+    @Test
+    void fillAndGenerateAgree() {
+        int quadCount = 64;
+        int[] generated = QuadIndices.generate(quadCount);
+
+        // Two fills of adjacent ranges make up the same prefix
+        IntBuffer buffer = IntBuffer.allocate(quadCount * QuadIndices.INDICES_PER_QUAD);
+        QuadIndices.fill(buffer, 0, 20);
+        QuadIndices.fill(buffer, 20, quadCount - 20);
+        assertArrayEquals(generated, buffer.array());
+    }
+
+    @Test
+    void indexCountIsSixPerFullQuad() {
+        assertEquals(0, QuadIndices.indexCount(0));
+        assertEquals(6, QuadIndices.indexCount(4));
+        assertEquals(600, QuadIndices.indexCount(400));
+        assertEquals(6, QuadIndices.indexCount(7)); // A partial quad draws nothing
+    }
+
+    private static void assertPattern(int[] indices, int offset, int firstQuad, int quadCount) {
+        for (int q = 0; q < quadCount; q++) {
+            int base = (firstQuad + q) * QuadIndices.VERTICES_PER_QUAD;
+            for (int i = 0; i < PATTERN.length; i++) {
+                int at = offset + q * QuadIndices.INDICES_PER_QUAD + i;
+                assertEquals(base + PATTERN[i], indices[at], "quad " + (firstQuad + q) + " index " + i);
+            }
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package render;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FrustumCullerTest {
+    private static final float NEAR = 0.1f;
+    private static final float FAR = 100f;
+
+    // Camera in the middle of chunk (0, 0), section 0, looking down -Z with a 90 degree field of view
+    private static final float CAMERA_X = 8, CAMERA_Y = 8, CAMERA_Z = 8;
+
+    private FrustumCuller culler;
+
+    @BeforeEach
+    void setUp() {
+        culler = new FrustumCuller();
+        culler.update(mul(perspective90(NEAR, FAR), translation(-CAMERA_X, -CAMERA_Y, -CAMERA_Z)));
+    }
+
+    @Test
+    void sectionsAheadAreVisible() {
+        assertTrue(culler.intersectsSection(0, 0, 0), "the camera's own section");
+        assertTrue(culler.intersectsSection(0, 0, -3));
+        assertTrue(culler.intersectsSection(0, 1, -3), "section above, still inside the vertical field of view");
+        assertTrue(culler.intersectsSection(1, 0, -2), "partly inside the right plane");
+    }
+
+    @Test
+    void sectionsBehindAreCulled() {
+        assertFalse(culler.intersectsSection(0, 0, 2));
+        assertFalse(culler.intersectsSection(-3, 1, 5));
+    }
+
+    @Test
+    void sectionsToTheSideAreCulled() {
+        assertFalse(culler.intersectsSection(10, 0, -1));
+        assertFalse(culler.intersectsSection(-10, 0, -1));
+    }
+
+    @Test
+    void sectionsPastTheFarPlaneAreCulled() {
+        // Nearest face at depth 152, far plane at 100
+        assertFalse(culler.intersectsSection(0, 0, -10));
+        // Nearest face at depth 88
+        assertTrue(culler.intersectsSection(0, 0, -6));
+    }
+
+    @Test
+    void boxesStraddlingAPlaneAreVisible() {
+        assertTrue(culler.intersectsBox(7, 7, 7.5f, 9, 9, 8.5f), "around the camera, crossing the near plane");
+        assertTrue(culler.intersectsBox(-1000, 0, -50, 1000, 1, -49), "wider than the frustum");
+        assertFalse(culler.intersectsBox(7, 7, 9, 9, 9, 10), "just behind the camera");
+    }
+
+    @Test
+    void testSectionCountsVisibleAndCulled() {
+        assertTrue(culler.testSection(0, 0, -3));
+        assertFalse(culler.testSection(0, 0, 2));
+        assertFalse(culler.testSection(10, 0, -1));
+        assertFalse(culler.testSection(0, 0, -10));
+        assertEquals(1, culler.getVisibleCount());
+        assertEquals(3, culler.getCulledCount());
+
+        // intersectsSection is not counted
+        culler.intersectsSection(0, 0, -3);
+        assertEquals(1, culler.getVisibleCount());
+
+        // A new frame starts from zero
+        culler.update(perspective90(NEAR, FAR));
+        assertEquals(0, culler.getVisibleCount());
+        assertEquals(0, culler.getCulledCount());
+    }
+
+    @Test
+    void lookingTheOtherWayFlipsTheResult() {
+        // Rotate the view 180 degrees about Y: now looking down +Z
+        float[] turnAround = identity();
+        turnAround[0] = -1;
+        turnAround[10] = -1;
+        culler.update(mul(perspective90(NEAR, FAR), mul(turnAround, translation(-CAMERA_X, -CAMERA_Y, -CAMERA_Z))));
+
+        assertTrue(culler.intersectsSection(0, 0, 2));
+        assertFalse(culler.intersectsSection(0, 0, -3));
+    }
+
+    // === Column-major matrices, element (row, col) at m[col * 4 + row] ===
+    private static float[] perspective90(float near, float far) {
+        float[] m = new float[16];
+        m[0] = 1;   // 1 / tan(45 degrees), aspect 1
+        m[5] = 1;
+        m[10] = (far + near) / (near - far);
+        m[11] = -1;
+        m[14] = 2 * far * near / (near - far);
+        return m;
+    }
+
+    private static float[] translation(float x, float y, float z) {
+        float[] m = identity();
+        m[12] = x;
+        m[13] = y;
+        m[14] = z;
+        return m;
+    }
+
+    private static float[] identity() {
+        float[] m = new float[16];
+        m[0] = m[5] = m[10] = m[15] = 1;
+        return m;
+    }
+
+    private static float[] mul(float[] a, float[] b) {
+        float[] m = new float[16];
+        for (int col = 0; col < 4; col++) {
+            for (int row = 0; row < 4; row++) {
+                float sum = 0;
+                for (int k = 0; k < 4; k++) {
+                    sum += a[k * 4 + row] * b[col * 4 + k];
+                }
+                m[col * 4 + row] = sum;
+            }
+        }
+        return m;
+    }
+}